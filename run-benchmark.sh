@@ -0,0 +1,22 @@
+#!/bin/bash
+#
+# Fuehrt die JMH-Microbenchmarks aus (src/jmh/java)
+#
+# Verwendung:
+#   ./run-benchmark.sh                          # Schnelle Microbenchmarks (jmh.include in pom.xml)
+#   ./run-benchmark.sh TodoServiceBenchmark     # Einzelne Klasse (Regex)
+#   ./run-benchmark.sh "TodoServiceBenchmark -p size=100"  # Mit JMH-Optionen
+#
+# Startup-, Pool-, Request- und Import-Benchmarks laufen nur, wenn sie
+# ausdruecklich genannt werden (Dauer bzw. Docker, siehe doc/19-Performance-Tests.md).
+#
+# Ergebnis als JSON: target/jmh-result.json
+#
+
+cd "$(dirname "$0")" || exit 1
+
+if [ -n "$1" ]; then
+    mvn -Pbenchmark test-compile exec:exec -Djmh.include="$1"
+else
+    mvn -Pbenchmark test-compile exec:exec
+fi
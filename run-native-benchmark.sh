@@ -0,0 +1,77 @@
+#!/bin/bash
+#
+# Vergleicht JVM-Build und Native Image: Startzeit, Speicher (RSS), Durchsatz
+#
+# Verwendung:
+#   ./run-native-benchmark.sh               # baut JAR und Native Image neu
+#   ./run-native-benchmark.sh --no-build    # vorhandene Artefakte verwenden
+#
+# Voraussetzungen: GraalVM for JDK 21 (native-image) als JAVA_HOME, wrk, curl
+#
+# Ablauf je Variante:
+#   1. Start bis zur ersten erfolgreichen Antwort (time-to-first-request)
+#   2. RSS im Leerlauf nach dem Start
+#   3. 1000 Todos anlegen, 10 s Aufwaermen, 30 s Last mit wrk
+#   4. RSS nach der Last
+#
+# Beide Varianten laufen mit derselben Heap-Grenze (HEAP, Standard 256m).
+# Ergebnis als CSV: target/native/native-result.csv
+#
+
+cd "$(dirname "$0")" || exit 1
+
+HEAP="${HEAP:-256m}"
+PORT=18081
+BASE="http://localhost:$PORT"
+WORK=target/native
+
+for tool in wrk curl; do
+    command -v "$tool" > /dev/null || { echo "$tool fehlt" >&2; exit 1; }
+done
+
+if [ "$1" != "--no-build" ]; then
+    mvn -q -Pnative package native:compile -DskipTests || exit 1
+fi
+
+mkdir -p "$WORK"
+JAR=$(ls target/playground-*.jar | head -1)
+
+declare -A COMMANDS=(
+    [jvm]="java -Xmx$HEAP -jar $JAR"
+    [native]="target/playground -Xmx$HEAP"
+)
+
+rss_mb() {
+    echo $(( $(ps -o rss= -p "$1") / 1024 ))
+}
+
+echo "variant,startup_ms,rss_idle_mb,rss_load_mb,requests_per_sec" > "$WORK/native-result.csv"
+printf "%-8s %12s %12s %12s %12s\n" "Variante" "Start" "RSS idle" "RSS Last" "req/s"
+
+for variant in jvm native; do
+    start=$(date +%s%N)
+    ${COMMANDS[$variant]} --server.port=$PORT --logging.level.root=WARN > "$WORK/$variant.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$BASE/api/todos?limit=1"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Start fehlgeschlagen: $variant (siehe $WORK/$variant.log)" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    startup=$(( ($(date +%s%N) - start) / 1000000 ))
+    sleep 2
+    rss_idle=$(rss_mb "$pid")
+
+    todos=$(for i in $(seq 1 1000); do printf '{"title":"Todo %d"},' "$i"; done)
+    curl -sf -o /dev/null -H "Content-Type: application/json" -d "[${todos%,}]" "$BASE/api/todos/batch"
+
+    wrk -t4 -c32 -d10s "$BASE/api/todos?limit=20" > /dev/null
+    rps=$(wrk -t4 -c32 -d30s "$BASE/api/todos?limit=20" | awk '/Requests\/sec/ {print int($2)}')
+    rss_load=$(rss_mb "$pid")
+
+    kill "$pid" && wait "$pid" 2> /dev/null
+
+    echo "$variant,$startup,$rss_idle,$rss_load,$rps" >> "$WORK/native-result.csv"
+    printf "%-8s %9d ms %9d MB %9d MB %12d\n" "$variant" "$startup" "$rss_idle" "$rss_load" "$rps"
+done
@@ -0,0 +1,68 @@
+#!/bin/bash
+#
+# Misst die Zeit bis zum ersten erfolgreichen Request (time-to-first-request)
+# fuer verschiedene Startvarianten desselben JARs
+#
+# Verwendung:
+#   ./run-startup-benchmark.sh              # 5 Laeufe pro Variante
+#   ./run-startup-benchmark.sh 10           # 10 Laeufe pro Variante
+#
+# Varianten:
+#   jvm      java -jar (Referenz)
+#   aot      mit Spring-AOT-Bean-Definitionen (-Dspring.aot.enabled=true)
+#   cds      mit AppCDS-Archiv
+#   aot+cds  beides, wie im Docker-Image
+#
+# Ergebnis als CSV: target/startup/startup-result.csv
+#
+
+cd "$(dirname "$0")" || exit 1
+
+RUNS="${1:-5}"
+PORT=18080
+URL="http://localhost:$PORT/api/todos?limit=1"
+WORK=target/startup
+
+mvn -q -Paot package -DskipTests || exit 1
+
+rm -rf "$WORK" && mkdir -p "$WORK"
+JAR=$(ls target/playground-*.jar | head -1)
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/extracted" || exit 1
+APP="$WORK/extracted/$(basename "$JAR")"
+
+# CDS-Archive per Trainingslauf, je eines mit und ohne AOT (andere Klassen)
+java -XX:ArchiveClassesAtExit="$WORK/jvm.jsa" -Dspring.context.exit=onRefresh -jar "$APP" > /dev/null
+java -XX:ArchiveClassesAtExit="$WORK/aot.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh -jar "$APP" > /dev/null
+
+declare -A OPTIONS=(
+    [jvm]=""
+    [aot]="-Dspring.aot.enabled=true"
+    [cds]="-XX:SharedArchiveFile=$WORK/jvm.jsa"
+    [aot+cds]="-XX:SharedArchiveFile=$WORK/aot.jsa -Dspring.aot.enabled=true"
+)
+
+echo "variant,run,millis" > "$WORK/startup-result.csv"
+printf "%-8s %8s %8s %8s\n" "Variante" "min" "median" "max"
+
+for variant in jvm aot cds aot+cds; do
+    times=()
+    for run in $(seq 1 "$RUNS"); do
+        start=$(date +%s%N)
+        # shellcheck disable=SC2086
+        java ${OPTIONS[$variant]} -jar "$APP" --server.port=$PORT --logging.level.root=WARN > /dev/null &
+        pid=$!
+        until curl -sf -o /dev/null "$URL"; do
+            if ! kill -0 "$pid" 2> /dev/null; then
+                echo "Start fehlgeschlagen: $variant" >&2
+                exit 1
+            fi
+            sleep 0.02
+        done
+        millis=$(( ($(date +%s%N) - start) / 1000000 ))
+        kill "$pid" && wait "$pid" 2> /dev/null
+        times+=("$millis")
+        echo "$variant,$run,$millis" >> "$WORK/startup-result.csv"
+    done
+    sorted=($(printf "%s\n" "${times[@]}" | sort -n))
+    printf "%-8s %6d ms %6d ms %6d ms\n" "$variant" "${sorted[0]}" "${sorted[$(( RUNS / 2 ))]}" "${sorted[-1]}"
+done
@@ -0,0 +1,47 @@
+package de.training.playground.benchmark;
+
+import de.training.playground.entity.Todo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Erzeugt reproduzierbare Testdaten fuer die Benchmarks.
+ *
+ * <p>Ein fester Seed sorgt dafuer, dass jeder Lauf mit denselben Daten arbeitet
+ * und Ergebnisse zwischen Laeufen vergleichbar bleiben.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    /**
+     * Erzeugt Todos mit gemischtem Status und Faelligkeitsdatum.
+     *
+     * <p>Etwa ein Drittel ist erledigt, die Faelligkeit liegt zwischen
+     * 30 Tagen in der Vergangenheit und 30 Tagen in der Zukunft oder fehlt.
+     *
+     * @param count Anzahl der Todos
+     * @param withIds {@code true} um IDs ab 1 zu vergeben (fuer Serialisierung/Export)
+     * @return Liste der Todos
+     */
+    static List<Todo> todos(int count, boolean withIds) {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        List<Todo> todos = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            LocalDate dueDate = random.nextInt(4) == 0 ? null : today.plusDays(random.nextInt(61) - 30);
+            Todo todo = new Todo("Todo " + i, "Beschreibung fuer Todo " + i, dueDate);
+            if (random.nextInt(3) == 0) {
+                todo.markDone();
+            }
+            if (withIds) {
+                todo.setId((long) i);
+            }
+            todos.add(todo);
+        }
+        return todos;
+    }
+}
@@ -0,0 +1,110 @@
+package de.training.playground.benchmark;
+
+import de.training.playground.PlaygroundApplication;
+import de.training.playground.entity.Todo;
+import de.training.playground.entity.TodoPage;
+import de.training.playground.service.TodoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lasttest: Durchsatz von {@link TodoService} in Abhaengigkeit von der Poolgroesse.
+ *
+ * <p>{@value #CLIENT_THREADS} Threads rufen den Service ohne Caches auf, jeder
+ * Aufruf leiht sich also eine Verbindung aus dem Hikari-Pool. Variiert werden
+ * {@code poolSize} und die Datenbank: H2 In-Memory im selben Prozess oder
+ * PostgreSQL per Testcontainers (Docker erforderlich).
+ *
+ * <p>Erwartung: Der Durchsatz steigt bis etwa zur Anzahl der CPU-Kerne der
+ * Datenbank und faellt danach wieder - mehr Verbindungen bedeuten dann nur
+ * mehr Kontextwechsel und Sperrkonflikte, nicht mehr Arbeit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(ConnectionPoolBenchmark.CLIENT_THREADS)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+    static final int CLIENT_THREADS = 64;
+    static final int SIZE = 10_000;
+
+    @Param({"h2", "postgres"})
+    String database;
+
+    @Param({"4", "8", "16", "32", "64"})
+    int poolSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private TodoService service;
+    private long minId;
+    private long maxId;
+
+    @Setup
+    public void setUp() {
+        List<String> properties = new ArrayList<>(List.of(
+            "spring.cache.type=none",
+            "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+            "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+            "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+            "spring.datasource.hikari.minimum-idle=" + poolSize,
+            "spring.datasource.hikari.connection-timeout=30000",
+            "spring.datasource.hikari.leak-detection-threshold=0",
+            "logging.level.root=WARN"));
+        if ("postgres".equals(database)) {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+            properties.addAll(List.of(
+                "spring.datasource.url=" + postgres.getJdbcUrl(),
+                "spring.datasource.username=" + postgres.getUsername(),
+                "spring.datasource.password=" + postgres.getPassword(),
+                "spring.datasource.driver-class-name=org.postgresql.Driver",
+                "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"));
+        } else {
+            properties.add("spring.datasource.url=jdbc:h2:mem:pool");
+        }
+        context = new SpringApplicationBuilder(PlaygroundApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(properties.toArray(String[]::new))
+            .run();
+        service = context.getBean(TodoService.class);
+        List<Todo> saved = service.createAll(BenchmarkData.todos(SIZE, false));
+        minId = saved.get(0).getId();
+        maxId = saved.get(saved.size() - 1).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Benchmark
+    public Optional<Todo> findById() {
+        return service.findById(ThreadLocalRandom.current().nextLong(minId, maxId + 1));
+    }
+
+    @Benchmark
+    public TodoPage findPage() {
+        return service.findPage(ThreadLocalRandom.current().nextLong(minId, maxId + 1), 20);
+    }
+
+    @Benchmark
+    public Todo save() {
+        return service.save(new Todo("Pool-Benchmark"));
+    }
+}
@@ -0,0 +1,48 @@
+package de.training.playground.benchmark;
+
+import de.training.playground.controller.TodoWebController;
+import de.training.playground.entity.Todo;
+import de.training.playground.service.TodoService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Benchmark fuer den CSV-Export aus {@link TodoWebController#export()}.
+ *
+ * <p>Der Service liefert die Todos aus dem Speicher, gemessen wird also nur
+ * das Formatieren und Schreiben der CSV-Zeilen ohne Datenbankzugriff.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvExportBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    int size;
+
+    private TodoWebController controller;
+
+    @Setup
+    public void setUp() {
+        List<Todo> todos = BenchmarkData.todos(size, true);
+        TodoService service = new TodoService(null, null, null, null, null) {
+            @Override
+            public void processAll(Consumer<Todo> action) {
+                todos.forEach(action);
+            }
+        };
+        controller = new TodoWebController(service, null);
+    }
+
+    @Benchmark
+    public void export() throws Exception {
+        controller.export().getBody().writeTo(OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,42 @@
+package de.training.playground.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.training.playground.entity.Todo;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark fuer die Jackson-Serialisierung von {@code List<Todo>}.
+ *
+ * <p>Der {@link ObjectMapper} wird wie in Spring Boot ueber
+ * {@link Jackson2ObjectMapperBuilder} erzeugt, damit Module und
+ * Datumsformat denen der REST-API entsprechen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int size;
+
+    private ObjectMapper objectMapper;
+    private List<Todo> todos;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        todos = BenchmarkData.todos(size, true);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return objectMapper.writeValueAsBytes(todos);
+    }
+}
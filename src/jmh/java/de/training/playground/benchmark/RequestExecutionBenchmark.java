@@ -0,0 +1,156 @@
+package de.training.playground.benchmark;
+
+import de.training.playground.PlaygroundApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lasttest: Plattform-Threads gegen virtuelle Threads bei langsamer Datenbank.
+ *
+ * <p>Startet die Anwendung auf einem zufaelligen Port, einmal mit dem
+ * Standard-Tomcat-Pool (200 Plattform-Threads) und einmal mit dem Profil
+ * {@code virtual}. Jede Abfrage wird kuenstlich um {@value #DB_LATENCY_MS} ms
+ * verzoegert, der Verbindungspool ist in beiden Modi gleich gross
+ * ({@value #POOL_SIZE}). 400 Client-Threads rufen parallel
+ * {@code GET /api/todos?after={id}&limit=20} mit zufaelligem Cursor auf.
+ *
+ * <p>Die Datenbank enthaelt {@code rows} Todos mit Beschreibung und
+ * Faelligkeit, damit neben der kuenstlichen Latenz auch Abfrage, Mapping und
+ * JSON-Serialisierung einer vollen Seite gemessen werden. Befuellt wird mit
+ * einem einzigen INSERT ... SELECT, das nur einmal verzoegert wird.
+ *
+ * <p>Erwartung: Im Plattform-Modus ist der Durchsatz durch 200 gleichzeitige
+ * Requests begrenzt, im virtuellen Modus durch den Verbindungspool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(400)
+@Fork(1)
+public class RequestExecutionBenchmark {
+
+    static final int DB_LATENCY_MS = 20;
+    static final int POOL_SIZE = 400;
+
+    @Param({"platform", "virtual"})
+    String mode;
+
+    @Param({"100000"})
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup
+    public void setUp() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(
+            PlaygroundApplication.class, SlowDatabaseConfig.class);
+        if ("virtual".equals(mode)) {
+            builder.profiles("virtual");
+        }
+        // Kommandozeilen-Argumente haben Vorrang vor dem Profil
+        context = builder.run(
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:requests",
+            "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+            "--spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+            "--spring.datasource.hikari.connection-timeout=30000",
+            "--logging.level.root=WARN");
+        context.getBean(JdbcTemplate.class).update("""
+            insert into todo (id, title, description, done, due_date, version, updated_at, change_seq)
+            select x, 'Aufgabe ' || x, 'Beschreibung fuer Aufgabe ' || x, mod(x, 3) = 0,
+                   dateadd('DAY', mod(x, 61) - 30, current_date), 0, current_timestamp, x
+            from system_range(1, ?)
+            """, rows);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = "http://localhost:" + port + "/api/todos?limit=20&after=";
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getPage() throws Exception {
+        long after = ThreadLocalRandom.current().nextLong(rows - 20);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + after)).build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /** Verzoegert jede Datenbankabfrage, um eine entfernte, langsame Datenbank zu simulieren. */
+    @Configuration(proxyBeanMethods = false)
+    static class SlowDatabaseConfig {
+
+        @Bean
+        static BeanPostProcessor slowDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new SlowDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    static class SlowDataSource extends DelegatingDataSource {
+
+        SlowDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    return result instanceof PreparedStatement statement ? slow(statement) : result;
+                });
+        }
+
+        private static PreparedStatement slow(PreparedStatement statement) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        Thread.sleep(DB_LATENCY_MS);
+                    }
+                    return invoke(statement, method, args);
+                });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
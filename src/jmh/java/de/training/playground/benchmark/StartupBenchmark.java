@@ -0,0 +1,86 @@
+package de.training.playground.benchmark;
+
+import de.training.playground.PlaygroundApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startzeit im Profil {@code prod} mit dateibasierter H2 und vielen Zeilen.
+ *
+ * <p>Legt einmal pro Parameter eine Datenbank mit {@code rows} Todos an und
+ * misst danach, wie lange ein Neustart dauert: Datei oeffnen, Flyway- und
+ * Hibernate-Pruefung, Aufbau des Suchindex. {@code SpringApplication.run}
+ * kehrt erst nach dem {@code ApplicationReadyEvent} zurueck, der Indexaufbau
+ * ist also enthalten.
+ *
+ * <p>Die Titel stammen aus einem kleinen Wortschatz; bei eindeutigen Titeln
+ * wuerde der Suchindex fuer 10 Mio. Todos nicht in den Heap passen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StartupBenchmark {
+
+    static final int INSERT_CHUNK = 500_000;
+
+    @Param({"1000000", "10000000"})
+    int rows;
+
+    private Path dataDir;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void createDatabase() throws IOException {
+        dataDir = Files.createTempDirectory("playground-startup");
+        try (ConfigurableApplicationContext setup = start()) {
+            JdbcTemplate jdbc = setup.getBean(JdbcTemplate.class);
+            for (long from = 1; from <= rows; from += INSERT_CHUNK) {
+                jdbc.update("""
+                    insert into todo (id, title, description, done, due_date, version, updated_at, change_seq)
+                    select x, 'Aufgabe ' || mod(x, 1000), null, mod(x, 3) = 0,
+                           dateadd('DAY', mod(x, 61) - 30, current_date), 0, current_timestamp, x
+                    from system_range(?, ?)
+                    """, from, Math.min(from + INSERT_CHUNK - 1, rows));
+            }
+            jdbc.execute("alter sequence todo_seq restart with " + (rows + 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDatabase() throws IOException {
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext startup() {
+        context = start();
+        return context;
+    }
+
+    @TearDown(Level.Invocation)
+    public void shutdown() {
+        context.close();
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(PlaygroundApplication.class)
+            .web(WebApplicationType.NONE)
+            .profiles("prod")
+            .properties(
+                "playground.data-dir=" + dataDir,
+                "logging.level.root=WARN")
+            .run();
+    }
+}
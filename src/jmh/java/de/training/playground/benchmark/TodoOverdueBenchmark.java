@@ -0,0 +1,44 @@
+package de.training.playground.benchmark;
+
+import de.training.playground.entity.Todo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark fuer {@link Todo#isOverdue()} ueber Listen verschiedener Groesse.
+ *
+ * <p>Entspricht dem Aufwand, den die Startseite beim Rendern der
+ * ueberfaelligen Todos im Java-Code hat. Die Abfrage in der Datenbank misst
+ * {@link TodoServiceBenchmark#findOverdue()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TodoOverdueBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    int size;
+
+    private List<Todo> todos;
+
+    @Setup
+    public void setUp() {
+        todos = BenchmarkData.todos(size, false);
+    }
+
+    @Benchmark
+    public long countOverdue() {
+        long count = 0;
+        for (Todo todo : todos) {
+            if (todo.isOverdue()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
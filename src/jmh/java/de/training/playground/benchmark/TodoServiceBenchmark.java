@@ -0,0 +1,156 @@
+package de.training.playground.benchmark;
+
+import de.training.playground.PlaygroundApplication;
+import de.training.playground.entity.Todo;
+import de.training.playground.entity.TodoPage;
+import de.training.playground.entity.TodoSummary;
+import de.training.playground.service.TodoService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark fuer die {@link TodoService}-Methoden gegen H2 In-Memory.
+ *
+ * <p>Startet einen Spring-Kontext ohne Webserver und befuellt die Datenbank
+ * mit {@code size} Todos. Ueber {@code cache} werden Service-Cache und
+ * Hibernate Second-Level-Cache ein- ({@code caffeine}) oder ausgeschaltet
+ * ({@code none}), um Cache-Treffer und reine Datenbankzugriffe getrennt zu messen.
+ *
+ * <p>Die Gruppe {@code mixed} liest mit drei Threads nach ID, waehrend ein
+ * vierter Todos erledigt und wieder oeffnet. Nach jeder Iteration wird die
+ * Trefferquote der Region {@code todo-entity} unter dieser Last ausgegeben.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoServiceBenchmark {
+
+    @Param({"100", "10000"})
+    int size;
+
+    @Param({"caffeine", "none"})
+    String cache;
+
+    private ConfigurableApplicationContext context;
+    private TodoService service;
+    private MeterRegistry meterRegistry;
+    private long minId;
+    private long maxId;
+    private double hitsBefore;
+    private double missesBefore;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PlaygroundApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:benchmark",
+                "spring.cache.type=" + cache,
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + !"none".equals(cache),
+                "spring.jpa.properties.hibernate.cache.use_query_cache=" + !"none".equals(cache),
+                "logging.level.root=WARN")
+            .run();
+        service = context.getBean(TodoService.class);
+        meterRegistry = context.getBean(MeterRegistry.class);
+        List<Todo> saved = service.createAll(BenchmarkData.todos(size, false));
+        minId = saved.get(0).getId();
+        maxId = saved.get(saved.size() - 1).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void rememberCacheRequests() {
+        hitsBefore = cacheRequests("hit");
+        missesBefore = cacheRequests("miss");
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportHitRate() {
+        double hits = cacheRequests("hit") - hitsBefore;
+        double misses = cacheRequests("miss") - missesBefore;
+        if (hits + misses > 0) {
+            System.out.printf("%ntodo-entity: %.1f %% Treffer (%.0f von %.0f)%n",
+                100 * hits / (hits + misses), hits, hits + misses);
+        }
+    }
+
+    @Benchmark
+    public Optional<Todo> findById() {
+        return service.findById(ThreadLocalRandom.current().nextLong(minId, maxId + 1));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Optional<Todo> mixedRead() {
+        return service.findById(ThreadLocalRandom.current().nextLong(minId, maxId + 1));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Todo mixedWrite() {
+        long id = ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+        if (ThreadLocalRandom.current().nextBoolean()) {
+            return service.markDone(id);
+        }
+        return service.update(id, new Todo("Todo " + id)).orElseThrow();
+    }
+
+    @Benchmark
+    public List<Todo> findAll() {
+        return service.findAll();
+    }
+
+    @Benchmark
+    public TodoPage findOverdue() {
+        return service.findOverdue(null, TodoService.MAX_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<TodoSummary> findAllSummaries() {
+        return service.findAllSummaries();
+    }
+
+    @Benchmark
+    public List<TodoSummary> findOpen() {
+        return service.findOpen();
+    }
+
+    @Benchmark
+    public TodoPage findPage() {
+        return service.findPage(ThreadLocalRandom.current().nextLong(minId, maxId + 1), 50);
+    }
+
+    @Benchmark
+    public List<Todo> search() {
+        return service.search("Todo 1");
+    }
+
+    @Benchmark
+    public List<Todo> searchPrefix() {
+        return service.search("beschr");
+    }
+
+    private double cacheRequests(String result) {
+        FunctionCounter counter = meterRegistry.find("hibernate.second.level.cache.requests")
+            .tag("region", "todo-entity").tag("result", result).functionCounter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,34 @@
+package de.training.playground.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bindet den Spring-Cache an die laufende Transaktion.
+ *
+ * <p>{@code @CacheEvict} und {@code @Transactional} haben dieselbe Reihenfolge;
+ * ohne diese Konfiguration kann der Cache vor dem Commit geleert werden. Ein
+ * paralleler Leser sieht dann noch den alten Stand und legt ihn bis zum Ablauf
+ * erneut in den Cache. Der {@link TransactionAwareCacheManagerProxy} fuehrt
+ * {@code put}, {@code evict} und {@code clear} erst nach dem Commit aus,
+ * nach einem Rollback gar nicht. Ohne Transaktion wirken sie sofort.
+ */
+@Configuration(proxyBeanMethods = false)
+public class CacheConfig {
+
+    @Bean
+    static BeanPostProcessor transactionAwareCacheManager() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof CacheManager cacheManager
+                        && !(bean instanceof TransactionAwareCacheManagerProxy)
+                    ? new TransactionAwareCacheManagerProxy(cacheManager)
+                    : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package de.training.playground.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * Stellt die Uhr der Anwendung als Bean bereit.
+ *
+ * <p>Services berechnen Stichtage wie "heute" ueber diese {@link Clock} statt
+ * ueber {@code LocalDate.now()}. Tests koennen so eine feste Uhr einsetzen.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ClockConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
@@ -0,0 +1,50 @@
+package de.training.playground.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Hinweise fuer das GraalVM Native Image (Maven-Profil {@code native}).
+ *
+ * <p>Ein Native Image kennt nur Klassen und Ressourcen, die beim Build als
+ * erreichbar erkannt werden. Hier steht, was nur als Datei oder per
+ * Klassenname geladen wird:
+ * <ul>
+ *   <li>die Thymeleaf-Templates, die Cache-Konfiguration {@code application.conf}
+ *       und die Flyway-Migrationen</li>
+ *   <li>der H2-Treiber und der JCache-Provider</li>
+ * </ul>
+ *
+ * <p>Entitaeten und DTOs, die Thymeleaf oder Jackson per Reflection lesen,
+ * sind dort per {@link RegisterReflectionForBinding} markiert, wo sie
+ * verwendet werden. Ohne {@code native}-Profil haben die Hinweise keine Wirkung.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.PlaygroundRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static final String[] CLASSES_LOADED_BY_NAME = {
+        "org.h2.Driver",
+        "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"
+    };
+
+    public static class PlaygroundRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String className : CLASSES_LOADED_BY_NAME) {
+                hints.reflection().registerType(TypeReference.of(className),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            }
+            hints.resources()
+                .registerPattern("templates/*.html")
+                .registerPattern("application.conf")
+                .registerPattern("db/migration/*.sql");
+        }
+    }
+}
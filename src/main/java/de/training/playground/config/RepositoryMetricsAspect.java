@@ -0,0 +1,64 @@
+package de.training.playground.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Zaehlt die Zeilen, die jede Repository-Abfrage liefert.
+ *
+ * <p>Registriert die Verteilung {@code todo.repository.rows} mit dem Tag
+ * {@code method}. Zusammen mit den Service-Timern und den Hibernate-Statistiken
+ * laesst sich so erkennen, ob ein langsamer Aufruf an der Abfrage selbst oder an
+ * der Menge der geladenen Daten liegt.
+ *
+ * <p>Die Verteilungen werden einmal pro Methode angelegt und danach
+ * wiederverwendet. Bei {@link Stream}-Ergebnissen werden die Zeilen beim
+ * Durchlaufen gezaehlt und beim Schliessen des Streams erfasst - ein nicht
+ * geschlossener Stream fehlt also in der Statistik.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry registry;
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(* de.training.playground.repository.TodoRepository+.*(..))")
+    public Object recordRows(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        if (result instanceof Collection<?> collection) {
+            summary(joinPoint).record(collection.size());
+        } else if (result instanceof Optional<?> optional) {
+            summary(joinPoint).record(optional.isPresent() ? 1 : 0);
+        } else if (result instanceof Stream<?> stream) {
+            DistributionSummary summary = summary(joinPoint);
+            LongAdder rows = new LongAdder();
+            return stream.peek(row -> rows.increment()).onClose(() -> summary.record(rows.sum()));
+        }
+        return result;
+    }
+
+    private DistributionSummary summary(ProceedingJoinPoint joinPoint) {
+        return summaries.computeIfAbsent(joinPoint.getSignature().getName(), method ->
+            DistributionSummary.builder("todo.repository.rows")
+                .description("Anzahl der Zeilen pro Repository-Abfrage")
+                .tag("method", method)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry));
+    }
+}
@@ -0,0 +1,59 @@
+package de.training.playground.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.MethodMetadata;
+
+/**
+ * Erzeugt die Beans von springdoc erst beim ersten Zugriff.
+ *
+ * <p>Swagger UI und {@code /v3/api-docs} werden selten aufgerufen, ihre Beans
+ * verlaengern aber jeden Start. Anders als
+ * {@code spring.main.lazy-initialization} bleiben alle anderen Beans eager -
+ * Konfigurationsfehler fallen weiterhin beim Start auf, nicht beim ersten Request.
+ *
+ * <p>Ausgenommen sind Infrastruktur-Beans und {@link SmartInitializingSingleton},
+ * die springdoc beim Start zwingend braucht.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SpringdocLazyInitConfig {
+
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    @Bean
+    static BeanFactoryPostProcessor springdocLazyInit() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (definition.getRole() != BeanDefinition.ROLE_INFRASTRUCTURE
+                        && isSpringdoc(definition)
+                        && !mustBeEager(beanFactory, name)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    /** Bean-Klasse bzw. die Konfigurationsklasse der {@code @Bean}-Methode liegt in springdoc. */
+    private static boolean isSpringdoc(BeanDefinition definition) {
+        String className = definition.getBeanClassName();
+        if (definition instanceof AnnotatedBeanDefinition annotated) {
+            MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+            if (factoryMethod != null) {
+                className = factoryMethod.getDeclaringClassName();
+            }
+        }
+        return className != null && className.startsWith(SPRINGDOC_PACKAGE);
+    }
+
+    /** Typ unbekannt oder {@link SmartInitializingSingleton}: nicht anfassen. */
+    private static boolean mustBeEager(ConfigurableListableBeanFactory beanFactory, String name) {
+        Class<?> type = beanFactory.getType(name, false);
+        return type == null || SmartInitializingSingleton.class.isAssignableFrom(type);
+    }
+}
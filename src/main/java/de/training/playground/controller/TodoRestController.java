@@ -1,10 +1,36 @@
 package de.training.playground.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.training.playground.entity.Todo;
+import de.training.playground.entity.TodoChanges;
+import de.training.playground.entity.TodoImportResult;
+import de.training.playground.entity.TodoPage;
+import de.training.playground.entity.TodoSummary;
+import de.training.playground.service.TodoChangeService;
+import de.training.playground.service.TodoCsvService;
+import de.training.playground.service.TodoEventService;
 import de.training.playground.service.TodoService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * REST-Controller fuer die Todo-API.
@@ -14,40 +40,151 @@ import java.util.List;
  * <h2>Endpunkte</h2>
  * <ul>
  *   <li>{@code GET /api/todos} - alle Todos</li>
+ *   <li>{@code GET /api/todos?after={id}&limit={n}} - eine Seite (Keyset-Pagination,
+ *       ohne {@code limit} {@value #DEFAULT_PAGE_SIZE} Todos)</li>
  *   <li>{@code GET /api/todos/{id}} - einzelnes Todo</li>
  *   <li>{@code POST /api/todos} - neues Todo</li>
  *   <li>{@code PUT /api/todos/{id}} - Todo aktualisieren</li>
  *   <li>{@code PUT /api/todos/{id}/done} - als erledigt markieren</li>
  *   <li>{@code DELETE /api/todos/{id}} - Todo loeschen</li>
+ *   <li>{@code POST /api/todos/batch} - mehrere Todos anlegen</li>
+ *   <li>{@code PUT /api/todos/batch} - mehrere Todos aktualisieren</li>
+ *   <li>{@code DELETE /api/todos/batch} - mehrere Todos loeschen (Body: ID-Liste)</li>
+ *   <li>{@code POST /api/todos/import} - Todos aus CSV importieren (Format wie {@code /export})</li>
  *   <li>{@code GET /api/todos/open} - offene Todos</li>
  *   <li>{@code GET /api/todos/completed} - erledigte Todos</li>
+ *   <li>{@code GET /api/todos/changes?since={token}&limit={n}} - Aenderungen seit einem Sync-Token</li>
+ *   <li>{@code GET /api/todos/stream} - Aenderungen als Server-Sent Events</li>
  * </ul>
+ *
+ * <p>Die Listen-Endpunkte ohne {@code after} und {@code limit} liefern {@link TodoSummary}-Objekte
+ * ohne Beschreibung. Das vollstaendige Todo gibt es ueber {@code /api/todos/{id}}.
+ *
+ * <p>Einzelne Todos und die Listen tragen ein ETag. Schickt der Client es per
+ * {@code If-None-Match} zurueck und hat sich nichts geaendert, antwortet der
+ * Controller mit 304 Not Modified. Bei den Listen wird dafuer nur der
+ * Aenderungsstand abgefragt, nicht die Todos selbst. JSON, CBOR und Smile sind
+ * verschiedene Repraesentationen: Das ETag enthaelt fuer CBOR und Smile das
+ * Format, und alle Antworten tragen {@code Vary: Accept}, damit Caches sie
+ * nicht vertauschen.
+ *
+ * <p>Schreibzugriffe mit veralteter {@code version} im Body werden mit
+ * 409 Conflict abgelehnt. {@code PUT /api/todos/{id}} verlangt eine Version,
+ * im Body oder per {@code If-Match}.
+ *
+ * <p>Mit {@code Accept: application/x-ndjson} streamen die Listen-Endpunkte
+ * eine Zeile JSON pro Todo, seitenweise aus der Datenbank gelesen, statt das
+ * ganze Array im Speicher aufzubauen.
+ *
+ * <p>Alle Antworten gibt es auch binaer als CBOR ({@code application/cbor})
+ * oder Smile ({@code application/x-jackson-smile}) - gleiche Struktur, aber
+ * ohne Whitespace und mit kompakt kodierten Feldnamen und Zahlen.
  */
 @RestController
 @RequestMapping("/api/todos")
 public class TodoRestController {
 
+    /** Nach so vielen Zeilen wird ein NDJSON-Stream zum Client geflusht. */
+    private static final int NDJSON_FLUSH_ROWS = 500;
+
+    /** Seitengroesse, wenn nur {@code after} gesetzt ist. */
+    static final int DEFAULT_PAGE_SIZE = 100;
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
     private final TodoService service;
+    private final TodoChangeService changes;
+    private final TodoEventService events;
+    private final TodoCsvService csv;
+    private final ObjectMapper objectMapper;
 
-    public TodoRestController(TodoService service) {
+    public TodoRestController(TodoService service, TodoChangeService changes,
+                              TodoEventService events, TodoCsvService csv,
+                              ObjectMapper objectMapper) {
         this.service = service;
+        this.changes = changes;
+        this.events = events;
+        this.csv = csv;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public List<Todo> getAll() {
-        return service.findAll();
+    public ResponseEntity<List<TodoSummary>> getAll(WebRequest request, HttpServletResponse response)
+            throws IOException {
+        if (acceptsNdjson(request)) {
+            writeNdjson(response, null);
+            return null;
+        }
+        return conditionalList(request, service::findAllSummaries);
+    }
+
+    /**
+     * Liefert eine Seite von Todos.
+     *
+     * <p>Wird gewaehlt, sobald der Parameter {@code limit} gesetzt ist.
+     * Die naechste Seite erhaelt man mit {@code after=<nextCursor>}.
+     *
+     * @param after die letzte ID der Vorseite (optional)
+     * @param limit die Seitengroesse
+     * @return 200 OK mit Seite und Cursor
+     */
+    @GetMapping(params = "limit")
+    public TodoPage getPage(@RequestParam(required = false) Long after, @RequestParam int limit) {
+        return service.findPage(after, limit);
+    }
+
+    /**
+     * Liefert die Seite nach einem Cursor in der Standardgroesse.
+     *
+     * <p>Ohne eigene Abbildung fiele {@code ?after=} ohne {@code limit} auf
+     * {@link #getAll} zurueck und der Cursor wuerde ignoriert.
+     *
+     * @param after die letzte ID der Vorseite
+     * @return 200 OK mit {@value #DEFAULT_PAGE_SIZE} Todos und Cursor
+     */
+    @GetMapping(params = {"after", "!limit"})
+    public TodoPage getPageAfter(@RequestParam Long after) {
+        return service.findPage(after, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Liefert eine Seite ueberfaelliger Todos (offen, Faelligkeit vor heute).
+     *
+     * <p>Die naechste Seite erhaelt man mit {@code after=<nextCursor>}.
+     *
+     * @param after die letzte ID der Vorseite (optional)
+     * @param limit die Seitengroesse (Standard 100)
+     * @return 200 OK mit Seite und Cursor
+     */
+    @GetMapping("/overdue")
+    public TodoPage getOverdue(@RequestParam(required = false) Long after,
+                               @RequestParam(defaultValue = "100") int limit) {
+        return service.findOverdue(after, limit);
     }
 
     /**
      * Liefert ein einzelnes Todo.
      *
+     * <p>ETag ist {@code "<id>-<version>"} (bei CBOR und Smile mit Format,
+     * siehe {@link #representation}), Last-Modified der Zeitpunkt der
+     * letzten Aenderung. Passt {@code If-None-Match}, wird der Body nicht
+     * serialisiert.
+     *
      * @param id die Todo-ID
-     * @return 200 OK mit Todo oder 404 Not Found
+     * @return 200 OK mit Todo, 304 Not Modified oder 404 Not Found
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Todo> getById(@PathVariable Long id) {
+    public ResponseEntity<Todo> getById(@PathVariable Long id, WebRequest request) {
         return service.findById(id)
-            .map(ResponseEntity::ok)
+            .map(todo -> {
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .eTag(todo.getId() + "-" + todo.getVersion() + representation(request))
+                    .varyBy(HttpHeaders.ACCEPT);
+                if (todo.getUpdatedAt() != null) {
+                    response.lastModified(todo.getUpdatedAt());
+                }
+                return response.body(todo);
+            })
             .orElse(ResponseEntity.notFound().build());
     }
 
@@ -59,21 +196,41 @@ public class TodoRestController {
     /**
      * Aktualisiert ein bestehendes Todo.
      *
+     * <p>Der Client muss die Version nennen, auf der seine Aenderung beruht:
+     * als ETag aus {@link #getById} im Header {@code If-Match} oder als
+     * {@code version} im Body. Ohne beides antwortet der Controller mit
+     * 428 Precondition Required, damit niemand versehentlich fremde
+     * Aenderungen ueberschreibt. Passt die Version nicht mehr, gibt es bei
+     * {@code If-Match} 412 Precondition Failed, sonst 409 Conflict.
+     *
      * @param id die Todo-ID
      * @param todo die neuen Daten
-     * @return 200 OK mit aktualisiertem Todo oder 404 Not Found
+     * @param ifMatch das ETag, auf dem die Aenderung beruht (optional)
+     * @return 200 OK mit aktualisiertem Todo, 404, 409, 412 oder 428
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Todo> update(@PathVariable Long id, @RequestBody Todo todo) {
-        return service.findById(id)
-            .map(existing -> {
-                existing.setTitle(todo.getTitle());
-                existing.setDescription(todo.getDescription());
-                existing.setDueDate(todo.getDueDate());
-                existing.setDone(todo.isDone());
-                return ResponseEntity.ok(service.save(existing));
-            })
-            .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Todo> update(@PathVariable Long id, @RequestBody Todo todo,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null) {
+            if (todo.getVersion() == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+            }
+            return service.update(id, todo)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+        }
+        Long version = versionFromIfMatch(id, ifMatch);
+        if (version == null || todo.getVersion() != null && !todo.getVersion().equals(version)) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        todo.setVersion(version);
+        try {
+            return service.update(id, todo)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
     }
 
     @PutMapping("/{id}/done")
@@ -89,24 +246,247 @@ public class TodoRestController {
      * Loescht ein Todo.
      *
      * @param id die Todo-ID
-     * @return 204 No Content oder 404 Not Found
+     * @return 204 No Content, 404 Not Found oder 409 Conflict, wenn das Todo
+     *         gleichzeitig geaendert wurde
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        if (service.findById(id).isEmpty()) {
+        return service.deleteIfExists(id)
+            ? ResponseEntity.noContent().build()
+            : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/batch")
+    public List<Todo> createBatch(@RequestBody List<Todo> todos) {
+        return service.createAll(todos);
+    }
+
+    /**
+     * Importiert Todos aus CSV im Format des Web-Exports ({@code GET /export}).
+     *
+     * <p>Der Body wird zeilenweise gelesen und blockweise gespeichert; fehlerhafte
+     * Zeilen werden uebersprungen und mit Zeilennummer gemeldet.
+     *
+     * @param body die CSV-Daten (UTF-8) mit Kopfzeile
+     * @return 200 OK mit dem Ergebnis oder 400 Bad Request bei fehlender Kopfzeile
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<TodoImportResult> importCsv(InputStream body) throws IOException {
+        try {
+            return ResponseEntity.ok(csv.importCsv(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Aktualisiert mehrere Todos in einer Transaktion.
+     *
+     * <p>Wie bei {@link #update} muss jedes Todo die Version nennen, auf der
+     * die Aenderung beruht. Fehlt sie bei einem, wird der ganze Batch mit
+     * 428 Precondition Required abgelehnt; das Problem-Detail nennt die
+     * betroffenen IDs unter {@code ids}.
+     *
+     * @param todos die neuen Daten, jeweils mit ID und Version
+     * @return 200 OK mit aktualisierten Todos, 404 Not Found, wenn eines fehlt,
+     *         409 Conflict bei veralteter Version oder 428 ohne Version
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<List<Todo>> updateBatch(@RequestBody List<Todo> todos) {
+        List<Long> unversioned = todos.stream()
+            .filter(todo -> todo.getVersion() == null)
+            .map(Todo::getId)
+            .toList();
+        if (!unversioned.isEmpty()) {
+            ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.PRECONDITION_REQUIRED,
+                "Version fehlt fuer Todos " + unversioned);
+            problem.setProperty("ids", unversioned);
+            return ResponseEntity.of(problem).build();
+        }
+        try {
+            return ResponseEntity.ok(service.updateAll(todos));
+        } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
-        service.delete(id);
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<Void> deleteBatch(@RequestBody List<Long> ids) {
+        service.deleteAll(ids);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/open")
-    public List<Todo> getOpen() {
-        return service.findOpen();
+    public ResponseEntity<List<TodoSummary>> getOpen(WebRequest request, HttpServletResponse response)
+            throws IOException {
+        if (acceptsNdjson(request)) {
+            writeNdjson(response, false);
+            return null;
+        }
+        return conditionalList(request, service::findOpen);
     }
 
     @GetMapping("/completed")
-    public List<Todo> getCompleted() {
-        return service.findCompleted();
+    public ResponseEntity<List<TodoSummary>> getCompleted(WebRequest request, HttpServletResponse response)
+            throws IOException {
+        if (acceptsNdjson(request)) {
+            writeNdjson(response, true);
+            return null;
+        }
+        return conditionalList(request, service::findCompleted);
+    }
+
+    /**
+     * Liefert die Aenderungen seit einem Sync-Token, seitenweise.
+     *
+     * <p>Beim ersten Abruf ohne {@code since} kommen alle Todos. Danach genuegt
+     * es, das gelieferte {@code token} als {@code since} zu uebergeben; solange
+     * {@code more} gesetzt ist, liegen weitere Aenderungen vor.
+     *
+     * @param since das Token des letzten Abrufs
+     * @param limit maximale Anzahl der Eintraege
+     * @return 200 OK mit geaenderten Todos, geloeschten IDs und neuem Token oder
+     *         410 Gone, wenn das Token zu alt ist und der Client neu laden muss
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<TodoChanges> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                  @RequestParam(defaultValue = "1000") int limit) {
+        TodoChanges result = changes.changesSince(since, limit);
+        return ResponseEntity.status(result.resyncRequired() ? HttpStatus.GONE : HttpStatus.OK).body(result);
+    }
+
+    /**
+     * Oeffnet einen Event-Stream mit allen Aenderungen an Todos.
+     *
+     * <p>Events heissen {@code created}, {@code updated}, {@code done} und
+     * {@code deleted}; die Daten sind ein {@link de.training.playground.entity.TodoEvent}
+     * als JSON. Verpasste Events lassen sich ueber {@code /changes} nachholen.
+     *
+     * @return der Stream, bleibt bis zum Async-Timeout offen
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return events.subscribe();
+    }
+
+    /**
+     * Beantwortet Versionskonflikte mit 409 Conflict.
+     *
+     * <p>Der Client sollte das Todo neu laden und seine Aenderung erneut anwenden.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleConflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    /**
+     * Beantwortet einen Listen-Request mit ETag.
+     *
+     * <p>Das ETag stammt aus {@link TodoService#getListVersion()}. Stimmt es mit
+     * {@code If-None-Match} ueberein, wird die Liste gar nicht erst geladen.
+     */
+    private ResponseEntity<List<TodoSummary>> conditionalList(WebRequest request,
+                                                              Supplier<List<TodoSummary>> loader) {
+        String etag = service.getListVersion().etag() + representation(request);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(loader.get());
+    }
+
+    /**
+     * Liest die Version aus einem {@code If-Match}-Header.
+     *
+     * <p>Akzeptiert werden starke ETags im Format von {@link #getById} fuer
+     * dieses Todo, in jeder Repraesentation. Schwache ETags und {@code *}
+     * nennen keine Version.
+     *
+     * @return die Version oder {@code null}, wenn kein passendes ETag dabei ist
+     */
+    private static Long versionFromIfMatch(Long id, String ifMatch) {
+        String prefix = id + "-";
+        for (ETag etag : ETag.parse(ifMatch)) {
+            if (etag.isWildcard() || etag.weak() || !etag.tag().startsWith(prefix)) {
+                continue;
+            }
+            String version = etag.tag().substring(prefix.length());
+            int format = version.indexOf('-');
+            try {
+                return Long.valueOf(format < 0 ? version : version.substring(0, format));
+            } catch (NumberFormatException e) {
+                // kein ETag dieses Controllers
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Kennzeichnet das ausgehandelte Format fuer das ETag.
+     *
+     * <p>Wie bei {@link #acceptsNdjson} entscheidet der erste konkrete Typ mit
+     * der hoechsten Qualitaet. JSON ist der Standard und bekommt keinen Zusatz.
+     *
+     * @return {@code "-cbor"}, {@code "-smile"} oder ein leerer String fuer JSON
+     */
+    private static String representation(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return "";
+        }
+        return MediaType.parseMediaTypes(accept).stream()
+            .filter(type -> !type.isWildcardType() && !type.isWildcardSubtype())
+            .max((a, b) -> Double.compare(a.getQualityValue(), b.getQualityValue()))
+            .map(type -> MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(type) ? "-cbor"
+                : SMILE.equalsTypeAndSubtype(type) ? "-smile"
+                : "")
+            .orElse("");
+    }
+
+    /**
+     * Prueft, ob der Client NDJSON ausdruecklich bevorzugt.
+     *
+     * <p>Bewusst nicht ueber {@code produces} an einer zweiten Methode: Bei einem
+     * Accept-Header mit Wildcard (Browser, RestAssured) gewaenne sonst NDJSON.
+     * Entscheidend ist der erste konkrete Typ mit der hoechsten Qualitaet.
+     */
+    private static boolean acceptsNdjson(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return false;
+        }
+        return MediaType.parseMediaTypes(accept).stream()
+            .filter(type -> !type.isWildcardType() && !type.isWildcardSubtype())
+            .max((a, b) -> Double.compare(a.getQualityValue(), b.getQualityValue()))
+            .map(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype)
+            .orElse(false);
+    }
+
+    /**
+     * Streamt Kurzfassungen als NDJSON: ein JSON-Objekt pro Zeile.
+     *
+     * <p>Geschrieben wird direkt in den Response, Seite fuer Seite; eine
+     * Verbindung ist nur waehrend des Lesens einer Seite ausgeliehen. Der
+     * Request-Thread bleibt dabei belegt.
+     *
+     * @param done {@code null} fuer alle Todos, sonst nur mit diesem Status
+     */
+    private void writeNdjson(HttpServletResponse response, Boolean done) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        generator.setRootValueSeparator(null);
+        AtomicLong rows = new AtomicLong();
+        service.processSummaries(done, summary -> {
+            try {
+                generator.writeObject(summary);
+                generator.writeRaw('\n');
+                if (rows.incrementAndGet() % NDJSON_FLUSH_ROWS == 0) {
+                    generator.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.flush();
     }
 }
@@ -1,45 +1,86 @@
 package de.training.playground.controller;
 
 import de.training.playground.entity.Todo;
+import de.training.playground.entity.TodoImportResult;
+import de.training.playground.entity.TodoPage;
+import de.training.playground.entity.TodoStats;
+import de.training.playground.service.TodoCsvService;
 import de.training.playground.service.TodoService;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Web-Controller fuer die Thymeleaf-Oberflaeche.
  *
  * <p>Stellt HTML-Seiten fuer die Todo-Verwaltung bereit.
  * Verwendet POST-Redirect-GET Pattern fuer Formulare.
+ *
+ * <p>Die Model-Typen liest Thymeleaf per Reflection; fuer das Native Image
+ * sind sie deshalb per {@link RegisterReflectionForBinding} angemeldet.
  */
 @Controller
+@RegisterReflectionForBinding({Todo.class, TodoPage.class, TodoStats.class})
 @RequestMapping("/")
 public class TodoWebController {
 
+    /** Anzahl der Todos pro Seite auf der Startseite. */
+    private static final int INDEX_PAGE_SIZE = 50;
+
+    /** Nach so vielen Zeilen wird der Export zum Client geflusht. */
+    private static final int EXPORT_FLUSH_ROWS = 1000;
+
     private final TodoService service;
+    private final TodoCsvService csv;
 
-    public TodoWebController(TodoService service) {
+    public TodoWebController(TodoService service, TodoCsvService csv) {
         this.service = service;
+        this.csv = csv;
     }
 
     /**
      * Zeigt die Hauptseite mit Todo-Liste.
      *
+     * <p>Ohne Suchbegriff wird nur eine Seite geladen (Keyset-Pagination ueber
+     * {@code after}). Die Kennzahlen kommen aus einer Aggregat-Abfrage und
+     * beziehen sich immer auf alle Todos.
+     *
      * @param q optionaler Suchbegriff
+     * @param after letzte ID der Vorseite (optional)
      * @param model das Thymeleaf-Model
      * @return View-Name "index"
      */
     @GetMapping
-    public String index(@RequestParam(required = false) String q, Model model) {
-        List<Todo> todos = (q != null && !q.isBlank())
-            ? service.search(q)
-            : service.findAll();
-        model.addAttribute("todos", todos);
+    public String index(@RequestParam(required = false) String q,
+                        @RequestParam(required = false) Long after,
+                        Model model) {
+        if (q != null && !q.isBlank()) {
+            model.addAttribute("todos", service.search(q));
+            model.addAttribute("searchWarming", !service.isSearchIndexReady());
+        } else {
+            TodoPage page = service.findPage(after, INDEX_PAGE_SIZE);
+            model.addAttribute("todos", page.items());
+            model.addAttribute("nextCursor", page.nextCursor());
+            model.addAttribute("after", after);
+        }
+        model.addAttribute("stats", service.getStats());
         model.addAttribute("newTodo", new Todo());
         model.addAttribute("searchQuery", q);
         return "index";
@@ -58,13 +99,24 @@ public class TodoWebController {
         return "edit";
     }
 
+    /**
+     * Speichert das Bearbeitungsformular.
+     *
+     * <p>Das Formular traegt die Version, mit der es geladen wurde. Hat jemand
+     * das Todo inzwischen geaendert, wird das Formular mit dem aktuellen Stand
+     * und einem Hinweis erneut angezeigt, statt die Aenderung zu ueberschreiben.
+     */
     @PostMapping("/{id}/edit")
-    public String update(@PathVariable Long id, @ModelAttribute Todo todo) {
+    public String update(@PathVariable Long id, @ModelAttribute Todo todo, Model model) {
         Todo existing = service.findById(id).orElseThrow();
-        existing.setTitle(todo.getTitle());
-        existing.setDescription(todo.getDescription());
-        existing.setDueDate(todo.getDueDate());
-        service.save(existing);
+        todo.setDone(existing.isDone());
+        try {
+            service.update(id, todo).orElseThrow();
+        } catch (OptimisticLockingFailureException e) {
+            model.addAttribute("todo", service.findById(id).orElseThrow());
+            model.addAttribute("conflict", true);
+            return "edit";
+        }
         return "redirect:/";
     }
 
@@ -76,29 +128,62 @@ public class TodoWebController {
 
     @PostMapping("/{id}/delete")
     public String delete(@PathVariable Long id) {
-        service.delete(id);
+        service.deleteIfExists(id);
         return "redirect:/";
     }
 
     /**
      * Exportiert alle Todos als CSV-Datei.
      *
-     * @return CSV-Download mit Semikolon als Trennzeichen
+     * <p>Die Todos werden seitenweise gelesen, direkt in den Response
+     * geschrieben und blockweise geflusht - der Speicherbedarf ist unabhaengig
+     * von der Anzahl der Todos, und zwischen den Seiten ist keine Verbindung
+     * ausgeliehen.
+     *
+     * @return CSV-Download mit Semikolon als Trennzeichen, Format siehe {@link TodoCsvService}
      */
     @GetMapping("/export")
-    public ResponseEntity<String> export() {
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID;Titel;Beschreibung;Faellig;Erledigt\n");
-        for (Todo t : service.findAll()) {
-            csv.append(t.getId()).append(";")
-               .append(t.getTitle()).append(";")
-               .append(t.getDescription() != null ? t.getDescription() : "").append(";")
-               .append(t.getDueDate() != null ? t.getDueDate() : "").append(";")
-               .append(t.isDone() ? "Ja" : "Nein").append("\n");
-        }
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            TodoCsvService.writeHeader(writer);
+            AtomicLong rows = new AtomicLong();
+            service.processAll(t -> {
+                try {
+                    TodoCsvService.writeRow(writer, t);
+                    if (rows.incrementAndGet() % EXPORT_FLUSH_ROWS == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
         return ResponseEntity.ok()
             .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=todos.csv")
-            .contentType(MediaType.parseMediaType("text/csv"))
-            .body(csv.toString());
+            .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+            .body(body);
+    }
+
+    /**
+     * Importiert Todos aus einer CSV-Datei im Format von {@link #export()}.
+     *
+     * <p>Die Datei wird als Request-Body (UTF-8) zeilenweise gelesen und in
+     * Bloecken gespeichert, siehe {@link TodoCsvService}. Fehlerhafte Zeilen
+     * werden uebersprungen und im Ergebnis gemeldet.
+     *
+     * @param body die CSV-Daten mit Kopfzeile
+     * @return 200 OK mit dem Ergebnis oder 400 Bad Request bei fehlender Kopfzeile
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @ResponseBody
+    public ResponseEntity<TodoImportResult> importCsv(InputStream body) throws IOException {
+        try {
+            return ResponseEntity.ok(csv.importCsv(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 }
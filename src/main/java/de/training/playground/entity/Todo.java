@@ -1,6 +1,10 @@
 package de.training.playground.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+import java.time.Instant;
 import java.time.LocalDate;
 
 /**
@@ -8,12 +12,37 @@ import java.time.LocalDate;
  *
  * <p>Repraesentiert eine einzelne Aufgabe mit Titel, optionaler Beschreibung,
  * Faelligkeitsdatum und Erledigungsstatus.
+ *
+ * <p>Liegt im Second-Level-Cache (Region {@code todo-entity}), sofern
+ * {@code hibernate.cache.use_second_level_cache} aktiv ist. {@code READ_WRITE}
+ * sperrt einen Eintrag waehrend einer Aenderung, sodass parallele
+ * Transaktionen keine veralteten Daten aus dem Cache lesen.
+ *
+ * <p>Indizes nach Zugriffsmuster: {@code (done, dueDate)} fuer offene und
+ * ueberfaellige Todos, {@code (done, id)} fuer Status-Listen in ID-Reihenfolge
+ * und Keyset-Pagination. Fuer das Profil {@code prod} legt sie die
+ * Flyway-Migration {@code V2__todo_status_indexes.sql} an.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "todo-entity")
+@Table(indexes = {
+    @Index(name = "idx_todo_change_seq", columnList = "changeSeq"),
+    @Index(name = "idx_todo_done_due_date", columnList = "done, dueDate"),
+    @Index(name = "idx_todo_done_id", columnList = "done, id")
+})
 public class Todo {
 
+    /**
+     * Technische ID aus der Sequenz {@code todo_seq}.
+     *
+     * <p>Hibernate reserviert jeweils 50 IDs pro Sequenzaufruf. Anders als
+     * bei {@code IDENTITY} sind die IDs damit vor dem INSERT bekannt und
+     * mehrere INSERTs koennen per JDBC-Batching gebuendelt werden.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todo_seq")
+    @SequenceGenerator(name = "todo_seq", sequenceName = "todo_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -21,6 +50,26 @@ public class Todo {
     private boolean done;
     private LocalDate dueDate;
 
+    /**
+     * Versionszaehler, wird von Hibernate bei jedem UPDATE erhoeht.
+     *
+     * <p>Dient zusammen mit der ID als ETag fuer bedingte GET-Requests.
+     */
+    @Version
+    private Long version;
+
+    /** Zeitpunkt der letzten Aenderung, wird von Hibernate gesetzt. */
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    /**
+     * Aenderungsnummer fuer die Delta-Synchronisation.
+     *
+     * <p>Wird vom {@code TodoService} bei jedem Schreibzugriff aus einem
+     * fortlaufenden Zaehler vergeben, der auch Loeschungen umfasst.
+     */
+    private Long changeSeq;
+
     /** Default-Konstruktor fuer JPA. */
     public Todo() {}
 
@@ -63,6 +112,14 @@ public class Todo {
     public LocalDate getDueDate() { return dueDate; }
     public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+
+    public Long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(Long changeSeq) { this.changeSeq = changeSeq; }
+
     /** Markiert dieses Todo als erledigt. */
     public void markDone() { this.done = true; }
 
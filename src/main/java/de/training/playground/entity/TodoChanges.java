@@ -0,0 +1,27 @@
+package de.training.playground.entity;
+
+import java.util.List;
+
+/**
+ * Aenderungen seit einem Sync-Token fuer die Delta-Synchronisation.
+ *
+ * <p>Der Client uebernimmt {@link #changed()}, entfernt {@link #deleted()} aus
+ * seiner lokalen Kopie und uebergibt beim naechsten Abruf {@link #token()}
+ * als Parameter {@code since}. Ist {@link #more()} gesetzt, folgen sofort
+ * weitere Aenderungen. Ist {@link #resyncRequired()} gesetzt, ist das Token zu
+ * alt: Der Client verwirft seine Kopie und laedt mit {@code since=0} neu.
+ *
+ * @param changed neue und geaenderte Todos, aufsteigend nach Aenderungsnummer
+ * @param deleted IDs der seitdem geloeschten Todos
+ * @param token Sync-Token fuer den naechsten Abruf
+ * @param more {@code true}, wenn die Seite voll ist und weitere Aenderungen vorliegen
+ * @param resyncRequired {@code true}, wenn das Token nicht mehr gueltig ist
+ */
+public record TodoChanges(List<Todo> changed, List<Long> deleted, long token,
+                          boolean more, boolean resyncRequired) {
+
+    /** Antwort fuer ein Token, dessen Grabsteine schon verdichtet sind. */
+    public static TodoChanges resync() {
+        return new TodoChanges(List.of(), List.of(), 0, false, true);
+    }
+}
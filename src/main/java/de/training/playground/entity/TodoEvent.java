@@ -0,0 +1,22 @@
+package de.training.playground.entity;
+
+/**
+ * Aenderung an einem Todo, wie sie der Event-Stream an Clients schickt.
+ *
+ * @param type die Art der Aenderung
+ * @param id die Todo-ID
+ * @param todo das Todo nach der Aenderung oder {@code null} bei {@link Type#DELETED}
+ */
+public record TodoEvent(Type type, Long id, Todo todo) {
+
+    /** Art der Aenderung, zugleich Event-Name im Stream (klein geschrieben). */
+    public enum Type { CREATED, UPDATED, DONE, DELETED }
+
+    public static TodoEvent created(Todo todo) { return new TodoEvent(Type.CREATED, todo.getId(), todo); }
+
+    public static TodoEvent updated(Todo todo) { return new TodoEvent(Type.UPDATED, todo.getId(), todo); }
+
+    public static TodoEvent done(Todo todo) { return new TodoEvent(Type.DONE, todo.getId(), todo); }
+
+    public static TodoEvent deleted(Long id) { return new TodoEvent(Type.DELETED, id, null); }
+}
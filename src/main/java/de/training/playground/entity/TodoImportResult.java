@@ -0,0 +1,25 @@
+package de.training.playground.entity;
+
+import java.util.List;
+
+/**
+ * Ergebnis eines CSV-Imports.
+ *
+ * <p>Fehlerhafte Zeilen werden uebersprungen, der Rest wird trotzdem
+ * importiert. {@link #errors()} enthaelt hoechstens die ersten 1000 Fehler,
+ * {@link #failed()} zaehlt alle.
+ *
+ * @param imported Anzahl der angelegten Todos
+ * @param failed Anzahl der abgelehnten Zeilen
+ * @param errors Fehler pro Zeile in der Reihenfolge, in der sie erkannt wurden
+ */
+public record TodoImportResult(long imported, long failed, List<RowError> errors) {
+
+    /**
+     * Eine abgelehnte Zeile.
+     *
+     * @param line Zeilennummer in der Datei (Kopfzeile ist Zeile 1)
+     * @param message Grund der Ablehnung
+     */
+    public record RowError(long line, String message) {}
+}
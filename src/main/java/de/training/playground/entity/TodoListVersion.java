@@ -0,0 +1,21 @@
+package de.training.playground.entity;
+
+/**
+ * Kennwerte, die sich bei jeder Aenderung an der Todo-Tabelle aendern.
+ *
+ * <p>Neue Todos erhoehen {@code maxId} (die IDs kommen aus einer Sequenz),
+ * Loeschungen verringern {@code count} und jedes UPDATE erhoeht
+ * {@code versionSum}. Daraus wird das ETag fuer die Listen-Endpunkte gebildet,
+ * ohne die Todos selbst zu laden.
+ *
+ * @param count Anzahl aller Todos
+ * @param maxId groesste vergebene ID
+ * @param versionSum Summe aller Versionszaehler
+ */
+public record TodoListVersion(long count, long maxId, long versionSum) {
+
+    /** Liefert das ETag (ohne Anfuehrungszeichen) fuer diesen Stand. */
+    public String etag() {
+        return count + "-" + maxId + "-" + versionSum;
+    }
+}
@@ -0,0 +1,14 @@
+package de.training.playground.entity;
+
+import java.util.List;
+
+/**
+ * Eine Seite von Todos fuer die Keyset-Pagination.
+ *
+ * <p>Der Client uebergibt {@link #nextCursor()} als Parameter {@code after},
+ * um die Folgeseite abzurufen.
+ *
+ * @param items die Todos dieser Seite, aufsteigend nach ID sortiert
+ * @param nextCursor ID fuer die Folgeseite oder {@code null} auf der letzten Seite
+ */
+public record TodoPage(List<Todo> items, Long nextCursor) {}
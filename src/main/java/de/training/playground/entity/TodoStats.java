@@ -0,0 +1,14 @@
+package de.training.playground.entity;
+
+/**
+ * Kennzahlen ueber alle Todos, wie sie die Startseite anzeigt.
+ *
+ * <p>Wird per Aggregat-Abfrage direkt in der Datenbank berechnet,
+ * ohne die Todos selbst zu laden.
+ *
+ * @param total Anzahl aller Todos
+ * @param open Anzahl offener Todos
+ * @param done Anzahl erledigter Todos
+ * @param overdue Anzahl offener Todos mit Faelligkeitsdatum in der Vergangenheit
+ */
+public record TodoStats(long total, long open, long done, long overdue) {}
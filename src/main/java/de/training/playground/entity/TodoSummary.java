@@ -0,0 +1,17 @@
+package de.training.playground.entity;
+
+import java.time.LocalDate;
+
+/**
+ * Kurzfassung eines Todos fuer Listenansichten.
+ *
+ * <p>Wird per Konstruktor-Ausdruck direkt aus der Abfrage erzeugt. Hibernate
+ * legt dafuer keine verwalteten Entitaeten an, und die Beschreibung wird
+ * gar nicht erst gelesen.
+ *
+ * @param id die Todo-ID
+ * @param title der Titel
+ * @param done Erledigungsstatus
+ * @param dueDate Faelligkeitsdatum oder {@code null}
+ */
+public record TodoSummary(Long id, String title, boolean done, LocalDate dueDate) {}
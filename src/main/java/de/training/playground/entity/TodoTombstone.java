@@ -0,0 +1,66 @@
+package de.training.playground.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+import java.time.Instant;
+
+/**
+ * Grabstein fuer ein geloeschtes Todo.
+ *
+ * <p>Haelt fest, dass und wann ein Todo geloescht wurde, damit Clients mit
+ * lokaler Kopie die Loeschung bei der Delta-Synchronisation erfahren.
+ *
+ * <p>Schluessel ist die Aenderungsnummer, die nie doppelt vergeben wird.
+ * Grabsteine werden nur angelegt, nie geaendert: {@link #isNew()} ist immer
+ * {@code true}, damit {@code save} direkt ein INSERT ausfuehrt statt vorher
+ * per SELECT zu pruefen, ob der Schluessel existiert.
+ *
+ * <p>Alte Grabsteine verdichtet der Service regelmaessig zu einem einzigen
+ * ohne Todo-ID, der nur noch die Grenze festhaelt. Er sucht sie ueber den
+ * Index auf {@code deletedAt}; im Profil {@code prod} legt ihn die
+ * Flyway-Migration {@code V3__tombstone_deleted_at_index.sql} an.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_todo_tombstone_deleted_at", columnList = "deletedAt"))
+public class TodoTombstone implements Persistable<Long> {
+
+    /** Aenderungsnummer der Loeschung, siehe {@link Todo#getChangeSeq()}. */
+    @Id
+    private long changeSeq;
+
+    /**
+     * ID des geloeschten Todos; {@code null} markiert die Verdichtung bis
+     * einschliesslich {@link #changeSeq}.
+     */
+    private Long todoId;
+
+    private Instant deletedAt;
+
+    /** Default-Konstruktor fuer JPA. */
+    protected TodoTombstone() {}
+
+    /**
+     * Erstellt einen Grabstein.
+     *
+     * @param todoId ID des geloeschten Todos
+     * @param changeSeq Aenderungsnummer der Loeschung
+     * @param deletedAt Zeitpunkt der Loeschung
+     */
+    public TodoTombstone(Long todoId, long changeSeq, Instant deletedAt) {
+        this.todoId = todoId;
+        this.changeSeq = changeSeq;
+        this.deletedAt = deletedAt;
+    }
+
+    @Override
+    public Long getId() { return changeSeq; }
+
+    @Override
+    public boolean isNew() { return true; }
+
+    public Long getTodoId() { return todoId; }
+
+    public long getChangeSeq() { return changeSeq; }
+
+    public Instant getDeletedAt() { return deletedAt; }
+}
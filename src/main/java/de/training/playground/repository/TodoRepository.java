@@ -1,8 +1,22 @@
 package de.training.playground.repository;
 
 import de.training.playground.entity.Todo;
+import de.training.playground.entity.TodoListVersion;
+import de.training.playground.entity.TodoStats;
+import de.training.playground.entity.TodoSummary;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository fuer {@link Todo}-Entitaeten.
@@ -15,11 +29,71 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
     /**
      * Findet alle Todos mit dem angegebenen Erledigungsstatus.
      *
+     * <p>Das Ergebnis liegt im Query-Cache (nur IDs, die Todos selbst kommen aus
+     * dem Second-Level-Cache). Hibernate verwirft es bei jedem Schreibzugriff
+     * auf die Tabelle {@code todo}.
+     *
      * @param done {@code true} fuer erledigte, {@code false} fuer offene Todos
      * @return Liste der passenden Todos
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Todo> findByDone(boolean done);
 
+    /**
+     * Liefert alle Todos als {@link TodoSummary}, aufsteigend nach ID.
+     *
+     * <p>Die Ergebnisse sind keine Entitaeten: Sie landen nicht im Persistence
+     * Context und werden nicht auf Aenderungen geprueft.
+     *
+     * @return Kurzfassungen aller Todos
+     */
+    @Query("""
+        select new de.training.playground.entity.TodoSummary(t.id, t.title, t.done, t.dueDate)
+        from Todo t
+        order by t.id
+        """)
+    List<TodoSummary> findAllSummaries();
+
+    /**
+     * Liefert die naechsten Kurzfassungen nach einer ID (Keyset-Pagination).
+     *
+     * @param after die letzte bereits gelieferte ID (exklusiv)
+     * @param limit maximale Anzahl der Ergebnisse
+     * @return Kurzfassungen mit {@code id > after}, aufsteigend nach ID
+     */
+    List<TodoSummary> findSummariesByIdGreaterThanOrderByIdAsc(long after, Limit limit);
+
+    /**
+     * Liefert die naechsten Kurzfassungen mit einem Erledigungsstatus nach einer ID.
+     *
+     * <p>Eigene Abfrage statt {@code (:done is null or t.done = :done)}: Nur mit
+     * festem {@code done = ?} kann die Datenbank ueber den Index (done, id) direkt
+     * an die Startposition springen und die Sortierung sparen.
+     *
+     * @param done {@code true} fuer erledigte, {@code false} fuer offene Todos
+     * @param after die letzte bereits gelieferte ID (exklusiv)
+     * @param limit maximale Anzahl der Ergebnisse
+     * @return Kurzfassungen mit {@code id > after}, aufsteigend nach ID
+     */
+    List<TodoSummary> findSummariesByDoneAndIdGreaterThanOrderByIdAsc(boolean done, long after, Limit limit);
+
+    /**
+     * Liefert die Todos mit dem angegebenen Erledigungsstatus als {@link TodoSummary}.
+     *
+     * <p>Wie {@link #findByDone(boolean)} im Query-Cache.
+     *
+     * @param done {@code true} fuer erledigte, {@code false} fuer offene Todos
+     * @return Kurzfassungen der passenden Todos, aufsteigend nach ID
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("""
+        select new de.training.playground.entity.TodoSummary(t.id, t.title, t.done, t.dueDate)
+        from Todo t
+        where t.done = :done
+        order by t.id
+        """)
+    List<TodoSummary> findSummariesByDone(@Param("done") boolean done);
+
     /**
      * Findet alle Todos, deren Titel den Suchbegriff enthaelt.
      *
@@ -27,4 +101,123 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
      * @return Liste der passenden Todos
      */
     List<Todo> findByTitleContaining(String keyword);
+
+    /**
+     * Liefert die naechsten Todos nach einer ID, aufsteigend sortiert (Keyset-Pagination).
+     *
+     * <p>Im Gegensatz zu OFFSET springt die Datenbank ueber den Primaerschluessel-Index
+     * direkt an die Startposition - die Kosten sind fuer jede Seite gleich.
+     *
+     * @param after die letzte bereits gelieferte ID (exklusiv)
+     * @param limit maximale Anzahl der Ergebnisse
+     * @return Liste der Todos mit {@code id > after}
+     */
+    List<Todo> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    /**
+     * Liefert die naechsten ueberfaelligen Todos nach einer ID (Keyset-Pagination).
+     *
+     * <p>Ueberfaellig heisst offen und vor dem Stichtag faellig; die Datenbank
+     * filtert ueber den Index {@code (done, due_date)}, statt alle Todos zu laden.
+     *
+     * @param today Stichtag ({@code dueDate < today})
+     * @param after die letzte bereits gelieferte ID (exklusiv)
+     * @param limit maximale Anzahl der Ergebnisse
+     * @return ueberfaellige Todos mit {@code id > after}, aufsteigend nach ID
+     */
+    @Query("""
+        select t from Todo t
+        where t.done = false and t.dueDate < :today and t.id > :after
+        order by t.id
+        """)
+    List<Todo> findOverdue(@Param("today") LocalDate today, @Param("after") long after, Limit limit);
+
+    /**
+     * Zaehlt alle, offene, erledigte und ueberfaellige Todos in einem Durchlauf.
+     *
+     * <p>Statt vier getrennter COUNT-Abfragen werden die Zeilen per
+     * {@code CASE} den Kategorien zugeordnet und gemeinsam summiert.
+     *
+     * @param today Stichtag fuer "ueberfaellig" ({@code dueDate < today})
+     * @return die Kennzahlen
+     */
+    @Query("""
+        select new de.training.playground.entity.TodoStats(
+            count(t),
+            coalesce(sum(case when t.done = false then 1 else 0 end), 0),
+            coalesce(sum(case when t.done = true then 1 else 0 end), 0),
+            coalesce(sum(case when t.done = false and t.dueDate < :today then 1 else 0 end), 0))
+        from Todo t
+        """)
+    TodoStats countStats(@Param("today") LocalDate today);
+
+    /**
+     * Ermittelt den Aenderungsstand der Tabelle in einer Aggregat-Abfrage.
+     *
+     * @return Anzahl, groesste ID und Summe der Versionen
+     */
+    @Query("""
+        select new de.training.playground.entity.TodoListVersion(
+            count(t), coalesce(max(t.id), 0), coalesce(sum(t.version), 0))
+        from Todo t
+        """)
+    TodoListVersion findListVersion();
+
+    /**
+     * Laedt ein Todo und sperrt die Zeile bis zum Ende der Transaktion
+     * ({@code SELECT ... FOR UPDATE}).
+     *
+     * <p>Aendern zwei Transaktionen dasselbe Todo, wartet die zweite hier und
+     * sieht danach den Stand nach dem Commit der ersten.
+     *
+     * @param id die Todo-ID
+     * @return das gesperrte Todo oder empty, falls nicht vorhanden
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Todo t where t.id = :id")
+    Optional<Todo> findLockedById(@Param("id") Long id);
+
+    /**
+     * Laedt die vorhandenen Todos aus einer Liste von IDs und sperrt die Zeilen
+     * bis zum Ende der Transaktion ({@code SELECT ... FOR UPDATE}).
+     *
+     * <p>Loeschen zwei Transaktionen dieselben Todos, wartet die zweite hier und
+     * sieht danach nur noch die Todos, die es noch gibt.
+     *
+     * @param ids die gesuchten IDs
+     * @return die vorhandenen Todos, aufsteigend nach ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Todo t where t.id in :ids order by t.id")
+    List<Todo> findLockedByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Liefert alle Todos, die in einem Bereich von Aenderungsnummern angelegt oder geaendert wurden.
+     *
+     * @param from die kleinste Aenderungsnummer (inklusiv)
+     * @param to die groesste Aenderungsnummer (inklusiv)
+     * @param limit maximale Anzahl der Ergebnisse
+     * @return Todos, aufsteigend nach Aenderungsnummer
+     */
+    List<Todo> findByChangeSeqBetweenOrderByChangeSeqAsc(long from, long to, Limit limit);
+
+    /** Liefert die hoechste vergebene Aenderungsnummer oder 0. */
+    @Query("select coalesce(max(t.changeSeq), 0) from Todo t")
+    long findMaxChangeSeq();
+
+    /**
+     * Liefert die naechsten Todos nach einer ID fuer Massenverarbeitung (Export).
+     *
+     * <p>Wie {@link #findByIdGreaterThanOrderByIdAsc(Long, Limit)}, aber am
+     * Second-Level-Cache vorbei ({@code CacheMode.IGNORE}): Ein Export liest
+     * jedes Todo genau einmal und wuerde sonst die Region {@code todo-entity}
+     * mit kalten Eintraegen fuellen und die haeufig gelesenen verdraengen.
+     *
+     * @param after die letzte bereits gelieferte ID (exklusiv)
+     * @param limit maximale Anzahl der Ergebnisse
+     * @return Todos mit {@code id > after}, aufsteigend nach ID
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    @Query("select t from Todo t where t.id > :after order by t.id")
+    List<Todo> findBatchAfter(@Param("after") long after, Limit limit);
 }
@@ -0,0 +1,55 @@
+package de.training.playground.repository;
+
+import de.training.playground.entity.TodoTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository fuer {@link TodoTombstone}-Eintraege geloeschter Todos.
+ */
+public interface TodoTombstoneRepository extends JpaRepository<TodoTombstone, Long> {
+
+    /**
+     * Liefert alle Loeschungen in einem Bereich von Aenderungsnummern.
+     *
+     * <p>Die Markierung der Verdichtung (ohne Todo-ID) gehoert nicht dazu.
+     *
+     * @param from die kleinste Aenderungsnummer (inklusiv)
+     * @param to die groesste Aenderungsnummer (inklusiv)
+     * @param limit maximale Anzahl der Ergebnisse
+     * @return Grabsteine, aufsteigend nach Aenderungsnummer
+     */
+    List<TodoTombstone> findByChangeSeqBetweenAndTodoIdNotNullOrderByChangeSeqAsc(long from, long to, Limit limit);
+
+    /** Liefert die hoechste vergebene Aenderungsnummer oder 0. */
+    @Query("select coalesce(max(t.changeSeq), 0) from TodoTombstone t")
+    long findMaxChangeSeq();
+
+    /** Liefert die hoechste verdichtete Aenderungsnummer oder 0. */
+    @Query("select coalesce(max(t.changeSeq), 0) from TodoTombstone t where t.todoId is null")
+    long findCompactedUpTo();
+
+    /**
+     * Liefert die hoechste Aenderungsnummer der Grabsteine vor einem Zeitpunkt.
+     *
+     * @param before der Stichtag (exklusiv)
+     * @return die Aenderungsnummer oder 0, wenn es keine gibt
+     */
+    @Query("select coalesce(max(t.changeSeq), 0) from TodoTombstone t where t.deletedAt < :before")
+    long findMaxChangeSeqDeletedBefore(@Param("before") Instant before);
+
+    /**
+     * Loescht alle Grabsteine bis einschliesslich einer Aenderungsnummer.
+     *
+     * @param upTo die groesste zu loeschende Aenderungsnummer
+     * @return die Anzahl der geloeschten Grabsteine
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from TodoTombstone t where t.changeSeq <= :upTo")
+    int deleteUpTo(@Param("upTo") long upTo);
+}
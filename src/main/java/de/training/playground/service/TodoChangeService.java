@@ -0,0 +1,265 @@
+package de.training.playground.service;
+
+import de.training.playground.entity.Todo;
+import de.training.playground.entity.TodoChanges;
+import de.training.playground.entity.TodoTombstone;
+import de.training.playground.repository.TodoRepository;
+import de.training.playground.repository.TodoTombstoneRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Aenderungsnummern und Grabsteine fuer die Delta-Synchronisation.
+ *
+ * <p>Jeder Schreibzugriff im {@link TodoService} erhaelt eine neue Nummer aus
+ * einem fortlaufenden Zaehler: angelegte und geaenderte Todos tragen sie in
+ * {@link Todo#getChangeSeq()}, geloeschte in einem {@link TodoTombstone}.
+ * Clients fragen mit der hoechsten bekannten Nummer ({@code since}) nur die
+ * Aenderungen danach ab.
+ *
+ * <p>Der Zaehler liegt im Speicher und wird beim Start aus der Datenbank
+ * fortgesetzt; er setzt eine einzelne Anwendungsinstanz voraus. Nummern werden
+ * vor dem Commit vergeben, eine spaetere Transaktion kann also vor einer
+ * frueheren committen. Damit ein Client dabei nichts verpasst, merkt sich der
+ * Service die Nummern laufender Transaktionen und liefert Aenderungen nur bis
+ * unterhalb der kleinsten davon ({@link #stableSeq()}); nach Commit oder
+ * Rollback wird die Nummer freigegeben. Nummern ausserhalb einer Transaktion
+ * werden nicht verfolgt. Aenderungen direkt ueber das Repository erhalten
+ * keine Nummer.
+ *
+ * <p>Abrufe liefern hoechstens {@value #MAX_CHANGES} Eintraege; das Token
+ * zeigt dann auf den letzten gelieferten, und der Client fragt weiter, solange
+ * {@link TodoChanges#more()} gesetzt ist.
+ *
+ * <p>Grabsteine, die aelter als {@code playground.sync.tombstone-retention}
+ * sind, werden regelmaessig verdichtet: Sie werden geloescht, und ein
+ * Grabstein ohne Todo-ID merkt sich die hoechste verdichtete Nummer.
+ * Clients mit einem Token darunter koennten Loeschungen verpassen und
+ * erhalten {@link TodoChanges#resyncRequired()} - sie muessen mit
+ * {@code since=0} neu laden.
+ */
+@Service
+public class TodoChangeService implements TransactionSynchronization {
+
+    /** Obergrenze fuer die Anzahl der Eintraege pro Abruf. */
+    public static final int MAX_CHANGES = 1000;
+
+    private final TodoRepository repository;
+    private final TodoTombstoneRepository tombstones;
+    private final Clock clock;
+    private final Duration retention;
+
+    /** Hoechste verdichtete Aenderungsnummer; kleinere Tokens sind ungueltig. */
+    private volatile long compactedUpTo;
+
+    /** Schluessel fuer die Verdichtungsgrenze der laufenden Transaktion. */
+    private final Object compaction = new Object();
+
+    /** Schuetzt {@link #sequence} und {@link #inFlight}. */
+    private final Object lock = new Object();
+    private long sequence;
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+
+    public TodoChangeService(TodoRepository repository, TodoTombstoneRepository tombstones, Clock clock,
+                             @Value("${playground.sync.tombstone-retention:P30D}") Duration retention) {
+        this.repository = repository;
+        this.tombstones = tombstones;
+        this.clock = clock;
+        this.retention = retention;
+        this.sequence = Math.max(repository.findMaxChangeSeq(), tombstones.findMaxChangeSeq());
+        this.compactedUpTo = tombstones.findCompactedUpTo();
+    }
+
+    /**
+     * Vergibt die naechste Aenderungsnummer.
+     *
+     * <p>Laeuft eine Transaktion, gilt die Nummer bis zu deren Abschluss als
+     * offen und haelt {@link #stableSeq()} zurueck.
+     *
+     * @return eine Nummer groesser als alle bisher vergebenen
+     */
+    public long next() {
+        long seq;
+        synchronized (lock) {
+            seq = ++sequence;
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                return seq;
+            }
+            inFlight.add(seq);
+        }
+        pending().add(seq);
+        return seq;
+    }
+
+    /**
+     * Liefert die Nummern der laufenden Transaktion und meldet den Service
+     * beim ersten Aufruf als Synchronisation an.
+     */
+    private List<Long> pending() {
+        @SuppressWarnings("unchecked")
+        List<Long> pending = (List<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(this);
+        }
+        return pending;
+    }
+
+    /**
+     * Liefert die hoechste Aenderungsnummer, unter der keine Transaktion mehr
+     * offen ist. Alle Aenderungen bis dahin sind committet oder verworfen.
+     *
+     * @return die hoechste stabile Aenderungsnummer
+     */
+    public long stableSeq() {
+        synchronized (lock) {
+            return inFlight.isEmpty() ? sequence : inFlight.first() - 1;
+        }
+    }
+
+    /**
+     * Uebernimmt die Verdichtungsgrenze der committeten Transaktion.
+     *
+     * <p>Wird von Spring nach dem Commit aufgerufen, nicht direkt.
+     */
+    @Override
+    public void afterCommit() {
+        Long boundary = (Long) TransactionSynchronizationManager.getResource(compaction);
+        if (boundary != null) {
+            compactedUpTo = boundary;
+        }
+    }
+
+    /**
+     * Gibt die Nummern der abgeschlossenen Transaktion frei.
+     *
+     * <p>Wird von Spring nach Commit oder Rollback aufgerufen, nicht direkt.
+     */
+    @Override
+    public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(compaction);
+        @SuppressWarnings("unchecked")
+        List<Long> pending = (List<Long>) TransactionSynchronizationManager.unbindResourceIfPossible(this);
+        if (pending != null) {
+            synchronized (lock) {
+                inFlight.removeAll(pending);
+            }
+        }
+    }
+
+    /**
+     * Legt Grabsteine fuer geloeschte Todos an.
+     *
+     * @param ids die IDs der geloeschten Todos
+     */
+    public void recordDeletion(Collection<Long> ids) {
+        Instant now = Instant.now(clock);
+        tombstones.saveAll(ids.stream()
+            .map(id -> new TodoTombstone(id, next(), now))
+            .toList());
+    }
+
+    /**
+     * Liefert die Aenderungen nach einer Aenderungsnummer, seitenweise.
+     *
+     * <p>Gelesen wird nur bis {@link #stableSeq()}: Aenderungen noch laufender
+     * Transaktionen kommen erst beim naechsten Abruf. Aus Todos und Grabsteinen
+     * wird je ein Eintrag mehr als angefordert gelesen; die kleinsten
+     * {@code limit} Aenderungsnummern bilden die Seite.
+     *
+     * @param since die letzte bekannte Aenderungsnummer, {@code 0} fuer alles
+     * @param limit gewuenschte Seitengroesse, begrenzt auf 1 bis {@value #MAX_CHANGES}
+     * @return geaenderte Todos, geloeschte IDs und das Token fuer den naechsten
+     *         Abruf, oder {@link TodoChanges#resyncRequired()}, wenn die
+     *         Grabsteine nach {@code since} schon verdichtet sind
+     */
+    @Transactional(readOnly = true)
+    public TodoChanges changesSince(long since, int limit) {
+        if (since > 0 && since < compactedUpTo) {
+            return TodoChanges.resync();
+        }
+        int size = Math.clamp(limit, 1, MAX_CHANGES);
+        long upTo = stableSeq();
+        List<Todo> changed = repository.findByChangeSeqBetweenOrderByChangeSeqAsc(
+            since + 1, upTo, Limit.of(size + 1));
+        List<TodoTombstone> deleted = tombstones.findByChangeSeqBetweenAndTodoIdNotNullOrderByChangeSeqAsc(
+            since + 1, upTo, Limit.of(size + 1));
+        if (since > 0 && since < compactedUpTo) {
+            // waehrend der Abfrage verdichtet
+            return TodoChanges.resync();
+        }
+        if (changed.size() + deleted.size() <= size) {
+            return new TodoChanges(changed, deleted.stream().map(TodoTombstone::getTodoId).toList(),
+                Math.max(since, upTo), false, false);
+        }
+        long token = lastOfPage(changed, deleted, size);
+        return new TodoChanges(
+            changed.stream().filter(todo -> todo.getChangeSeq() <= token).toList(),
+            deleted.stream().filter(t -> t.getChangeSeq() <= token).map(TodoTombstone::getTodoId).toList(),
+            token, true, false);
+    }
+
+    /**
+     * Ermittelt die {@code size}-kleinste Aenderungsnummer aus beiden
+     * aufsteigend sortierten Listen. Die Nummern sind eindeutig.
+     */
+    private static long lastOfPage(List<Todo> changed, List<TodoTombstone> deleted, int size) {
+        int c = 0;
+        int d = 0;
+        long last = 0;
+        while (c + d < size) {
+            if (d == deleted.size()
+                    || c < changed.size() && changed.get(c).getChangeSeq() < deleted.get(d).getChangeSeq()) {
+                last = changed.get(c++).getChangeSeq();
+            } else {
+                last = deleted.get(d++).getChangeSeq();
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Verdichtet Grabsteine, die aelter als die Aufbewahrungszeit sind.
+     *
+     * <p>Laeuft im Abstand von {@code playground.sync.compaction-interval}.
+     * Die neue Grenze gilt erst nach dem Commit ({@link #afterCommit()}):
+     * Scheitert das Loeschen oder der Commit, behalten die Tokens der Clients
+     * ihre Gueltigkeit.
+     *
+     * @return die Anzahl der geloeschten Grabsteine
+     */
+    @Scheduled(fixedDelayString = "${playground.sync.compaction-interval:PT1H}",
+               initialDelayString = "${playground.sync.compaction-interval:PT1H}")
+    @Transactional
+    public int compactTombstones() {
+        Instant now = Instant.now(clock);
+        long boundary = tombstones.findMaxChangeSeqDeletedBefore(now.minus(retention));
+        if (boundary <= compactedUpTo) {
+            return 0;
+        }
+        int removed = tombstones.deleteUpTo(boundary);
+        tombstones.save(new TodoTombstone(null, boundary, now));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending();
+            TransactionSynchronizationManager.bindResource(compaction, boundary);
+        } else {
+            compactedUpTo = boundary;
+        }
+        return removed;
+    }
+}
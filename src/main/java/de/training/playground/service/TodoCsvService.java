@@ -0,0 +1,298 @@
+package de.training.playground.service;
+
+import de.training.playground.entity.Todo;
+import de.training.playground.entity.TodoEvent;
+import de.training.playground.entity.TodoImportResult;
+import de.training.playground.entity.TodoImportResult.RowError;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV-Format fuer Export und Import von Todos.
+ *
+ * <p>Semikolon als Trennzeichen, eine Kopfzeile ({@value #HEADER}), Datum als
+ * ISO-Datum, Status als {@code Ja}/{@code Nein}, fehlende Werte als leeres Feld.
+ * Felder mit Semikolon, Anfuehrungszeichen oder Zeilenumbruch stehen in
+ * Anfuehrungszeichen, innere Anfuehrungszeichen werden verdoppelt. Damit
+ * ergibt ein Re-Import des Exports dieselben Todos.
+ *
+ * <p>Der Import liest die Datei zeilenweise und schreibt in Bloecken von
+ * {@code playground.import.batch-size} Todos, jeder Block in einer eigenen
+ * Transaktion mit JDBC-Batching. Nach jedem Block wird der Persistence Context
+ * geleert - der Speicherbedarf haengt nicht von der Dateigroesse ab. Wie bei
+ * {@link TodoService#createAll(List)} erhalten die Todos neue IDs, die Spalte
+ * {@code ID} wird ignoriert. Aenderungsnummern, Events (und darueber der
+ * Suchindex) und der Listen-Cache werden wie bei jedem anderen Schreibzugriff
+ * aktualisiert.
+ */
+@Service
+public class TodoCsvService {
+
+    /** Kopfzeile der CSV-Datei. */
+    public static final String HEADER = "ID;Titel;Beschreibung;Faellig;Erledigt";
+
+    /** Obergrenze fuer die gemeldeten Fehler pro Import. */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    /** Maximale Laenge von Titel und Beschreibung (Spaltenbreite). */
+    static final int MAX_TEXT_LENGTH = 255;
+
+    private static final int COLUMNS = 5;
+
+    /** Rueckgabe von {@link #readRecord}: Anfuehrungszeichen nicht geschlossen. */
+    private static final int UNTERMINATED = -2;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactions;
+    private final TodoChangeService changeLog;
+    private final ApplicationEventPublisher events;
+    private final CacheManager cacheManager;
+    private final int batchSize;
+
+    public TodoCsvService(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                          TodoChangeService changeLog,
+                          ApplicationEventPublisher events, CacheManager cacheManager,
+                          @Value("${playground.import.batch-size:1000}") int batchSize) {
+        this.entityManager = entityManager;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.changeLog = changeLog;
+        this.events = events;
+        this.cacheManager = cacheManager;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Schreibt die Kopfzeile.
+     *
+     * @param writer Ziel
+     * @throws IOException wenn das Schreiben fehlschlaegt
+     */
+    public static void writeHeader(Writer writer) throws IOException {
+        writer.append(HEADER).append('\n');
+    }
+
+    /**
+     * Schreibt ein Todo als CSV-Zeile.
+     *
+     * @param writer Ziel
+     * @param todo das Todo
+     * @throws IOException wenn das Schreiben fehlschlaegt
+     */
+    public static void writeRow(Writer writer, Todo todo) throws IOException {
+        writer.append(String.valueOf(todo.getId())).append(';')
+              .append(quote(todo.getTitle())).append(';')
+              .append(quote(todo.getDescription())).append(';')
+              .append(todo.getDueDate() != null ? todo.getDueDate().toString() : "").append(';')
+              .append(todo.isDone() ? "Ja" : "Nein").append('\n');
+    }
+
+    /**
+     * Importiert Todos aus einer CSV-Datei im Format des Exports.
+     *
+     * <p>Zeilen mit falscher Spaltenzahl, leerem Titel, ungueltigem Datum oder
+     * Status oder zu langem Text werden abgelehnt und im Ergebnis gemeldet
+     * (hoechstens {@value #MAX_REPORTED_ERRORS} Fehler, gezaehlt werden alle).
+     * Schlaegt ein Block beim Schreiben fehl, gelten alle seine Zeilen als
+     * abgelehnt; bereits geschriebene Bloecke bleiben erhalten.
+     *
+     * @param csv die CSV-Daten, beginnend mit der Kopfzeile
+     * @return Anzahl importierter und abgelehnter Zeilen mit Fehlerliste
+     * @throws IllegalArgumentException wenn die Kopfzeile fehlt oder abweicht
+     * @throws IOException wenn das Lesen fehlschlaegt
+     */
+    public TodoImportResult importCsv(Reader csv) throws IOException {
+        List<String> fields = new ArrayList<>(COLUMNS);
+        StringBuilder field = new StringBuilder();
+        int read = readRecord(csv, fields, field);
+        if (read < 0 || !HEADER.equals(String.join(";", fields))) {
+            throw new IllegalArgumentException("Kopfzeile fehlt oder weicht ab, erwartet: " + HEADER);
+        }
+        long line = 1 + read;
+        long records = 0;
+        long imported = 0;
+        List<RowError> errors = new ArrayList<>();
+        List<Todo> batch = new ArrayList<>(batchSize);
+        List<Long> lines = new ArrayList<>(batchSize);
+        while ((read = readRecord(csv, fields, field)) >= 0) {
+            long recordLine = line;
+            line += read;
+            if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                continue;
+            }
+            records++;
+            try {
+                batch.add(parse(fields));
+                lines.add(recordLine);
+            } catch (IllegalArgumentException e) {
+                reject(errors, recordLine, e.getMessage());
+            }
+            if (batch.size() == batchSize) {
+                imported += write(batch, lines, errors);
+            }
+        }
+        if (read == UNTERMINATED) {
+            records++;
+            reject(errors, line, "Anfuehrungszeichen nicht geschlossen");
+        }
+        imported += write(batch, lines, errors);
+        return new TodoImportResult(imported, records - imported, errors);
+    }
+
+    /**
+     * Speichert einen Block in einer Transaktion und leert ihn danach.
+     *
+     * @return Anzahl der gespeicherten Todos, 0 wenn der Block fehlschlug
+     */
+    private int write(List<Todo> batch, List<Long> lines, List<RowError> errors) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int written = batch.size();
+        try {
+            transactions.executeWithoutResult(status -> {
+                Session session = entityManager.unwrap(Session.class);
+                session.setJdbcBatchSize(batchSize);
+                session.setCacheMode(CacheMode.IGNORE);
+                for (Todo todo : batch) {
+                    todo.setChangeSeq(changeLog.next());
+                    entityManager.persist(todo);
+                }
+                entityManager.flush();
+                entityManager.clear();
+                batch.forEach(todo -> events.publishEvent(TodoEvent.created(todo)));
+            });
+        } catch (PersistenceException | DataAccessException e) {
+            String message = "Block nicht gespeichert: "
+                + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            lines.forEach(line -> reject(errors, line, message));
+            written = 0;
+        }
+        Cache lists = cacheManager.getCache(TodoService.TODO_LISTS_CACHE);
+        if (lists != null) {
+            lists.clear();
+        }
+        batch.clear();
+        lines.clear();
+        return written;
+    }
+
+    private static void reject(List<RowError> errors, long line, String message) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    private static Todo parse(List<String> fields) {
+        if (fields.size() != COLUMNS) {
+            throw new IllegalArgumentException(
+                "Erwartet " + COLUMNS + " Spalten, gefunden " + fields.size());
+        }
+        String title = emptyToNull(fields.get(1));
+        String description = emptyToNull(fields.get(2));
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("Titel fehlt");
+        }
+        if (title.length() > MAX_TEXT_LENGTH || description != null && description.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("Text laenger als " + MAX_TEXT_LENGTH + " Zeichen");
+        }
+        LocalDate dueDate;
+        try {
+            dueDate = fields.get(3).isEmpty() ? null : LocalDate.parse(fields.get(3));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Ungueltiges Datum: " + fields.get(3));
+        }
+        Todo todo = new Todo(title, description, dueDate);
+        todo.setDone(switch (fields.get(4)) {
+            case "Ja" -> true;
+            case "Nein" -> false;
+            default -> throw new IllegalArgumentException("Erledigt muss Ja oder Nein sein: " + fields.get(4));
+        });
+        return todo;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ';' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Liest den naechsten Datensatz in {@code fields}. Ein Datensatz kann ueber
+     * mehrere Zeilen gehen, wenn ein Feld in Anfuehrungszeichen einen
+     * Zeilenumbruch enthaelt.
+     *
+     * @param fields wird geleert und mit den Feldern gefuellt
+     * @param field Puffer fuer ein Feld, wird wiederverwendet
+     * @return Anzahl der gelesenen Zeilen, {@code -1} am Dateiende oder
+     *         {@link #UNTERMINATED}, wenn die Datei in einem Feld in
+     *         Anfuehrungszeichen endet
+     */
+    private static int readRecord(Reader in, List<String> fields, StringBuilder field) throws IOException {
+        fields.clear();
+        field.setLength(0);
+        int c = in.read();
+        if (c == -1) {
+            return -1;
+        }
+        int lines = 1;
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    return UNTERMINATED;
+                }
+                if (c == '"') {
+                    c = in.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    lines++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ';') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                fields.add(field.toString());
+                return lines;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package de.training.playground.service;
+
+import de.training.playground.entity.TodoEvent;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Verteilt Todo-Aenderungen per Server-Sent Events an alle Abonnenten.
+ *
+ * <p>Der {@link TodoService} veroeffentlicht ein {@link TodoEvent} pro Aenderung;
+ * es wird erst nach dem Commit verteilt. Jeder Abonnent hat einen eigenen Puffer
+ * mit {@value #BUFFER_SIZE} Eintraegen. Ist er voll, wird das aelteste Event
+ * verworfen - ein langsamer Client kann weder Speicher anhaeufen noch den
+ * schreibenden Request aufhalten.
+ *
+ * <p>Offene Verbindungen belegen keinen Thread: Die Requests laufen asynchron
+ * im Servlet-Container. Nur solange ein Puffer geleert wird, arbeitet dafuer
+ * ein virtueller Thread.
+ *
+ * <p>Die Events serialisiert Jackson erst beim Senden; fuer das Native Image
+ * ist {@link TodoEvent} deshalb per {@link RegisterReflectionForBinding} angemeldet.
+ */
+@Service
+@RegisterReflectionForBinding(TodoEvent.class)
+public class TodoEventService {
+
+    /** Maximale Anzahl ungesendeter Events pro Abonnent. */
+    public static final int BUFFER_SIZE = 256;
+
+    /** Abonnenten mit ihrem Puffer ungesendeter Events. */
+    private final Map<SseEmitter, Deque<TodoEvent>> subscribers = new ConcurrentHashMap<>();
+
+    /** Abonnenten, deren Puffer gerade von einem Thread geleert wird. */
+    private final Set<SseEmitter> draining = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Registriert einen neuen Abonnenten.
+     *
+     * <p>Die Verbindung endet nach {@code spring.mvc.async.request-timeout};
+     * {@code EventSource}-Clients verbinden sich dann selbststaendig neu.
+     *
+     * @return der Emitter fuer den Response
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter();
+        subscribers.put(emitter, new ArrayDeque<>());
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(emitter));
+        return emitter;
+    }
+
+    /** Liefert die Anzahl der verbundenen Abonnenten. */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Stellt ein Event allen Abonnenten zu, nach dem Commit der Transaktion
+     * bzw. sofort, wenn keine Transaktion laeuft.
+     *
+     * @param event die Aenderung
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(TodoEvent event) {
+        subscribers.forEach((emitter, buffer) -> offer(emitter, buffer, event));
+    }
+
+    /** Legt das Event in den Puffer (aeltestes Event wird verworfen) und stoesst das Senden an. */
+    private void offer(SseEmitter emitter, Deque<TodoEvent> buffer, TodoEvent event) {
+        synchronized (buffer) {
+            if (buffer.size() == BUFFER_SIZE) {
+                buffer.pollFirst();
+            }
+            buffer.addLast(event);
+            if (!draining.add(emitter)) {
+                return;
+            }
+        }
+        sender.execute(() -> drain(emitter, buffer));
+    }
+
+    private void drain(SseEmitter emitter, Deque<TodoEvent> buffer) {
+        while (true) {
+            TodoEvent event;
+            synchronized (buffer) {
+                event = buffer.pollFirst();
+                if (event == null) {
+                    draining.remove(emitter);
+                    return;
+                }
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                    .name(event.type().name().toLowerCase(Locale.ROOT))
+                    .data(event));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(emitter);
+                draining.remove(emitter);
+                emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+}
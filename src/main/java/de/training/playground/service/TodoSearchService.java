@@ -0,0 +1,492 @@
+package de.training.playground.service;
+
+import de.training.playground.entity.Todo;
+import de.training.playground.entity.TodoEvent;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-Memory-Volltextindex (invertierter Index) ueber Titel und Beschreibung.
+ *
+ * <p>Jeder Begriff (Token) verweist auf die IDs der Todos, in denen er vorkommt.
+ * Die Begriffe sind sortiert abgelegt, sodass auch Praefix-Suchen
+ * ({@code "einkauf"} findet {@code "einkaufen"}) nur einen Bereich der Map lesen
+ * statt alle Todos zu durchsuchen.
+ *
+ * <p>Der Index folgt den {@link TodoEvent}s der Schreibzugriffe, und zwar erst
+ * nach dem Commit: Zurueckgerollte Aenderungen (Versionskonflikt, Fehler
+ * mitten im Batch) landen nie im Index. Aenderungen direkt ueber das
+ * Repository werden erst beim naechsten
+ * {@link TodoService#rebuildSearchIndex() Neuaufbau} beruecksichtigt.
+ *
+ * <p>Der Neuaufbau beim Start laeuft im Hintergrund. Bis er fertig ist, liefert
+ * die Suche nur einen Teil der Treffer; {@link #isReady()} und der
+ * Health-Status {@value #WARMING} zeigen das an. Events, die waehrenddessen
+ * eintreffen, haben Vorrang: Der Neuaufbau ueberschreibt kein Todo, das ein
+ * Event schon auf den neuesten Stand gebracht oder entfernt hat.
+ *
+ * <h2>Speicher und Laufzeit</h2>
+ * <ul>
+ *   <li>Die Postings eines Begriffs liegen als sortiertes {@code long[]}: ID und
+ *       Gewicht in einem {@code long}, 8 Byte pro Eintrag statt zweier
+ *       Wrapper-Objekte in einer {@code HashMap}.</li>
+ *   <li>Die Suche beginnt beim seltensten Suchbegriff und prueft die anderen
+ *       per binaerer Suche; die besten {@code limit} Treffer haelt ein
+ *       Min-Heap dieser Groesse, sortiert wird nur er.</li>
+ *   <li>Suchbegriffe unter {@value #MIN_PREFIX_LENGTH} Zeichen gelten nur exakt,
+ *       laengere erweitern auf hoechstens {@value #MAX_PREFIX_TERMS} Begriffe -
+ *       sonst laese {@code "a"} fast das ganze Woerterbuch.</li>
+ * </ul>
+ *
+ * <h2>Ranking</h2>
+ * <ul>
+ *   <li>Treffer im Titel zaehlen {@value #TITLE_WEIGHT}-fach, in der Beschreibung einfach</li>
+ *   <li>Exakte Begriffe zaehlen doppelt so viel wie Praefix-Treffer</li>
+ *   <li>Bei mehreren Suchbegriffen muessen alle vorkommen (UND)</li>
+ * </ul>
+ */
+@Service
+public class TodoSearchService implements HealthIndicator {
+
+    /** Health-Status waehrend des Neuaufbaus. */
+    public static final String WARMING = "WARMING";
+
+    static final int TITLE_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    /** Kuerzere Suchbegriffe werden nicht als Praefix erweitert. */
+    static final int MIN_PREFIX_LENGTH = 3;
+
+    /** Hoechstens so viele Begriffe deckt ein Praefix ab (alphabetisch die ersten). */
+    static final int MAX_PREFIX_TERMS = 1000;
+
+    /** Untere Bits eines Postings: Gewicht, darueber die Todo-ID. */
+    private static final int WEIGHT_BITS = 8;
+    private static final long WEIGHT_MASK = (1L << WEIGHT_BITS) - 1;
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Begriff -> Postings, sortiert fuer Praefix-Suchen. Ein Posting-Array
+     * haelt in Feld 0 die Anzahl, danach {@code id << 8 | gewicht} aufsteigend
+     * (also nach ID), mit Reserve am Ende.
+     */
+    private final NavigableMap<String, long[]> postings = new TreeMap<>();
+
+    /** Todo-ID -> Begriffe (dieselben String-Instanzen wie in {@link #postings}). */
+    private final Map<Long, String[]> termsById = new HashMap<>();
+
+    /** Waehrend des Neuaufbaus die IDs, die Events schon geaendert haben, sonst {@code null}. */
+    private Set<Long> changedDuringRebuild;
+
+    private volatile boolean ready;
+
+    /**
+     * Nimmt ein Todo in den Index auf oder ersetzt dessen bisherige Eintraege.
+     *
+     * @param todo das gespeicherte Todo (mit ID)
+     */
+    public void index(Todo todo) {
+        put(todo, false);
+    }
+
+    /**
+     * Nimmt ein Todo beim Neuaufbau auf, sofern kein Event es inzwischen
+     * geaendert oder entfernt hat.
+     *
+     * @param todo das Todo aus der Datenbank
+     */
+    public void rebuildEntry(Todo todo) {
+        put(todo, true);
+    }
+
+    /**
+     * Leert den Index und beginnt einen Neuaufbau; bis {@link #endRebuild()}
+     * gilt der Index als unvollstaendig.
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            termsById.clear();
+            changedDuringRebuild = new HashSet<>();
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Schliesst den Neuaufbau ab; der Index ist wieder vollstaendig. */
+    public void endRebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ob der Index vollstaendig ist.
+     *
+     * @return {@code false} vor und waehrend des Neuaufbaus
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Meldet {@value #WARMING}, solange der Neuaufbau laeuft, danach UP.
+     *
+     * @return der Zustand mit der Anzahl indexierter Todos
+     */
+    @Override
+    public Health health() {
+        return Health.status(ready ? Status.UP : new Status(WARMING, "Suchindex wird aufgebaut"))
+            .withDetail("indexed", size())
+            .build();
+    }
+
+    private void put(Todo todo, boolean rebuild) {
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(todo.getTitle()).forEach(term -> weights.merge(term, TITLE_WEIGHT, Integer::sum));
+        tokenize(todo.getDescription()).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+
+        long id = todo.getId();
+        lock.writeLock().lock();
+        try {
+            if (!rebuild) {
+                markChanged(id);
+            } else if (changedDuringRebuild != null && changedDuringRebuild.contains(id)) {
+                return;
+            }
+            removeUnlocked(id);
+            String[] terms = new String[weights.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+                String term = weight.getKey();
+                Map.Entry<String, long[]> existing = postings.ceilingEntry(term);
+                long[] list = null;
+                if (existing != null && existing.getKey().equals(term)) {
+                    term = existing.getKey();
+                    list = existing.getValue();
+                }
+                postings.put(term, insert(list, id << WEIGHT_BITS | Math.min(weight.getValue(), WEIGHT_MASK)));
+                terms[i++] = term;
+            }
+            termsById.put(id, terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Uebernimmt eine Aenderung nach dem Commit der Transaktion bzw. sofort,
+     * wenn keine Transaktion laeuft.
+     *
+     * @param event die Aenderung
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(TodoEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> index(event.todo());
+            case DELETED -> remove(event.id());
+            case DONE -> { } // Titel und Beschreibung bleiben gleich
+        }
+    }
+
+    /**
+     * Entfernt ein Todo aus dem Index.
+     *
+     * @param id die Todo-ID
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            markChanged(id);
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Entfernt mehrere Todos aus dem Index.
+     *
+     * @param ids die Todo-IDs
+     */
+    public void removeAll(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            ids.forEach(id -> {
+                markChanged(id);
+                removeUnlocked(id);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Leert den Index vollstaendig. */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            termsById.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sucht Todos und liefert deren IDs nach Relevanz sortiert.
+     *
+     * <p>Jeder Suchbegriff wird als Praefix behandelt, Gross-/Kleinschreibung
+     * spielt keine Rolle. Bei gleicher Relevanz entscheidet die kleinere ID.
+     *
+     * @param query die Suchbegriffe
+     * @param limit maximale Anzahl der Ergebnisse
+     * @return die IDs der besten Treffer
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // hoechste Relevanz zuletzt; bei Gleichstand gilt die groessere ID als schlechter
+        Comparator<long[]> worstFirst = Comparator.<long[]>comparingLong(hit -> hit[0])
+            .thenComparing(Comparator.<long[]>comparingLong(hit -> hit[1]).reversed());
+        PriorityQueue<long[]> best = new PriorityQueue<>(worstFirst);
+
+        lock.readLock().lock();
+        try {
+            List<List<Map.Entry<String, long[]>>> expansions = new ArrayList<>(terms.size());
+            int driver = 0;
+            long driverSize = Long.MAX_VALUE;
+            for (String term : terms) {
+                List<Map.Entry<String, long[]>> matches = expand(term);
+                if (matches.isEmpty()) {
+                    return List.of();
+                }
+                long size = matches.stream().mapToLong(match -> size(match.getValue())).sum();
+                if (size < driverSize) {
+                    driver = expansions.size();
+                    driverSize = size;
+                }
+                expansions.add(matches);
+            }
+
+            for (long id : candidates(expansions.get(driver))) {
+                long score = 0;
+                for (int t = 0; t < terms.size() && score >= 0; t++) {
+                    int termScore = score(terms.get(t), expansions.get(t), id);
+                    score = termScore == 0 ? -1 : score + termScore;
+                }
+                if (score > 0) {
+                    best.add(new long[] {score, id});
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return best.stream()
+            .sorted(worstFirst.reversed())
+            .map(hit -> hit[1])
+            .toList();
+    }
+
+    /** Anzahl der indexierten Todos. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Zerlegt einen Text in kleingeschriebene Begriffe.
+     *
+     * @param text der Text (darf {@code null} sein)
+     * @return die Begriffe in Reihenfolge ihres Vorkommens
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    /** Die Begriffe, die ein Suchbegriff abdeckt, der exakte zuerst. */
+    private List<Map.Entry<String, long[]>> expand(String term) {
+        if (term.length() < MIN_PREFIX_LENGTH) {
+            long[] list = postings.get(term);
+            return list == null ? List.of() : List.of(Map.entry(term, list));
+        }
+        List<Map.Entry<String, long[]>> matches = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry
+                : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            matches.add(entry);
+            if (matches.size() == MAX_PREFIX_TERMS) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    /** Alle IDs der Begriffe, aufsteigend und ohne Duplikate. */
+    private static long[] candidates(List<Map.Entry<String, long[]>> matches) {
+        int total = 0;
+        for (Map.Entry<String, long[]> match : matches) {
+            total += size(match.getValue());
+        }
+        long[] ids = new long[total];
+        int n = 0;
+        for (Map.Entry<String, long[]> match : matches) {
+            long[] list = match.getValue();
+            for (int i = 1; i <= size(list); i++) {
+                ids[n++] = list[i] >>> WEIGHT_BITS;
+            }
+        }
+        if (matches.size() == 1) {
+            return ids;
+        }
+        Arrays.sort(ids);
+        int unique = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[unique++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, unique);
+    }
+
+    /** Bestes Gewicht eines Suchbegriffs fuer ein Todo, exakte Treffer doppelt; 0 ohne Treffer. */
+    private static int score(String term, List<Map.Entry<String, long[]>> matches, long id) {
+        int best = 0;
+        for (Map.Entry<String, long[]> match : matches) {
+            long[] list = match.getValue();
+            int index = find(list, id);
+            if (index > 0) {
+                int factor = match.getKey().length() == term.length() ? 2 : 1;
+                best = Math.max(best, (int) (list[index] & WEIGHT_MASK) * factor);
+            }
+        }
+        return best;
+    }
+
+    private void markChanged(long id) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(id);
+        }
+    }
+
+    private void removeUnlocked(long id) {
+        String[] terms = termsById.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            long[] list = delete(postings.get(term), id);
+            if (list == null) {
+                postings.remove(term);
+            } else {
+                postings.put(term, list);
+            }
+        }
+    }
+
+    private static int size(long[] list) {
+        return (int) list[0];
+    }
+
+    /**
+     * Position des Postings einer ID.
+     *
+     * @return Index ab 1 oder {@code -(Einfuegeposition) - 1}
+     */
+    private static int find(long[] list, long id) {
+        int low = 1;
+        int high = size(list);
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = list[mid] >>> WEIGHT_BITS;
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -low - 1;
+    }
+
+    /** Fuegt ein Posting ein (die ID ist noch nicht enthalten); liefert ggf. ein groesseres Array. */
+    private static long[] insert(long[] list, long posting) {
+        if (list == null) {
+            list = new long[2];
+        }
+        int size = size(list);
+        int index = -find(list, posting >>> WEIGHT_BITS) - 1;
+        if (size + 1 == list.length) {
+            list = Arrays.copyOf(list, list.length + (list.length >> 1) + 1);
+        }
+        System.arraycopy(list, index, list, index + 1, size + 1 - index);
+        list[index] = posting;
+        list[0] = size + 1;
+        return list;
+    }
+
+    /** Entfernt das Posting einer ID; {@code null}, wenn die Liste danach leer ist. */
+    private static long[] delete(long[] list, long id) {
+        int index = find(list, id);
+        if (index < 0) {
+            return list;
+        }
+        int size = size(list);
+        if (size == 1) {
+            return null;
+        }
+        System.arraycopy(list, index + 1, list, index, size - index);
+        list[0] = size - 1;
+        if (size - 1 < list.length / 4) {
+            list = Arrays.copyOf(list, size);
+        }
+        return list;
+    }
+}
@@ -1,24 +1,90 @@
 package de.training.playground.service;
 
 import de.training.playground.entity.Todo;
+import de.training.playground.entity.TodoEvent;
+import de.training.playground.entity.TodoListVersion;
+import de.training.playground.entity.TodoPage;
+import de.training.playground.entity.TodoStats;
+import de.training.playground.entity.TodoSummary;
 import de.training.playground.repository.TodoRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service-Schicht fuer Todo-Operationen.
  *
  * <p>Kapselt die Geschaeftslogik und dient als Vermittler zwischen
  * Controllern und Repository.
+ *
+ * <p>Die Listen offener und erledigter Todos, die Kennzahlen und der
+ * Aenderungsstand werden im Cache {@value #TODO_LISTS_CACHE} gehalten; jede
+ * schreibende Methode invalidiert ihn, und zwar erst nach dem Commit
+ * ({@code CacheConfig}). Es sind unveraenderliche Records.
+ * Einzelne Todos cached nur der Hibernate Second-Level-Cache (Region
+ * {@code todo-entity}): Er haelt den Zustand, nicht die Entity, jeder Aufrufer
+ * bekommt also eine eigene Instanz. Aenderungen direkt ueber das Repository
+ * umgehen den Listen-Cache.
+ *
+ * <p>Die Volltextsuche laeuft ueber den {@link TodoSearchService}. Er
+ * aktualisiert sich selbst ueber die {@link TodoEvent}s nach dem Commit.
+ *
+ * <p>Jeder Schreibzugriff vergibt ueber den {@link TodoChangeService} eine
+ * Aenderungsnummer bzw. legt Grabsteine fuer geloeschte Todos an und
+ * veroeffentlicht ein {@link TodoEvent} fuer den {@link TodoEventService}.
+ *
+ * <p>Jede oeffentliche Methode wird gemessen: {@code todo.service} (Timer mit
+ * Perzentilen, Tags {@code method} und {@code exception}) und
+ * {@code todo.service.errors} (nur fehlgeschlagene Aufrufe).
  */
 @Service
+@Timed(value = "todo.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
+@Counted(value = "todo.service.errors", recordFailuresOnly = true)
 public class TodoService {
 
+    /** Cache fuer die Status-Listen (offen/erledigt). */
+    public static final String TODO_LISTS_CACHE = "todoLists";
+
+    /** Obergrenze fuer die Seitengroesse bei {@link #findPage(Long, int)}. */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /** Maximale Anzahl der Treffer bei {@link #search(String)}. */
+    public static final int MAX_SEARCH_RESULTS = 100;
+
+    /** Seitengroesse beim Lesen in {@link #processAll} und {@link #processSummaries}. */
+    public static final int PROCESS_PAGE_SIZE = 500;
+
     private final TodoRepository repository;
+    private final TodoSearchService searchIndex;
+    private final TodoChangeService changeLog;
+    private final ApplicationEventPublisher events;
+    private final Clock clock;
 
-    public TodoService(TodoRepository repository) {
+    public TodoService(TodoRepository repository, TodoSearchService searchIndex,
+                       TodoChangeService changeLog, ApplicationEventPublisher events, Clock clock) {
         this.repository = repository;
+        this.searchIndex = searchIndex;
+        this.changeLog = changeLog;
+        this.events = events;
+        this.clock = clock;
     }
 
     /** Liefert alle Todos. */
@@ -26,6 +92,108 @@ public class TodoService {
         return repository.findAll();
     }
 
+    /**
+     * Liefert alle Todos als Kurzfassung fuer Listenansichten.
+     *
+     * <p>Anders als {@link #findAll()} werden keine Entitaeten geladen.
+     *
+     * @return Kurzfassungen aller Todos, aufsteigend nach ID
+     */
+    @Transactional(readOnly = true)
+    public List<TodoSummary> findAllSummaries() {
+        return repository.findAllSummaries();
+    }
+
+    /**
+     * Uebergibt alle Todos nacheinander an den Consumer, aufsteigend nach ID.
+     *
+     * <p>Gelesen wird in Seiten von {@value #PROCESS_PAGE_SIZE} Todos per
+     * Keyset-Pagination, jede Seite in einer eigenen kurzen Lesetransaktion.
+     * Zwischen zwei Seiten ist keine Verbindung ausgeliehen, auch wenn der
+     * Consumer langsam an einen Client schreibt; der Second-Level-Cache wird
+     * nicht befuellt. Ausserhalb einer Transaktion aufgerufen bleibt der
+     * Speicherbedarf unabhaengig von der Tabellengroesse konstant.
+     *
+     * @param action wird fuer jedes Todo aufgerufen
+     */
+    public void processAll(Consumer<Todo> action) {
+        long after = 0;
+        List<Todo> page;
+        do {
+            page = repository.findBatchAfter(after, Limit.of(PROCESS_PAGE_SIZE));
+            page.forEach(action);
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == PROCESS_PAGE_SIZE);
+    }
+
+    /**
+     * Uebergibt die Kurzfassungen aller bzw. aller offenen oder erledigten Todos
+     * nacheinander an den Consumer, aufsteigend nach ID.
+     *
+     * <p>Gelesen wird wie bei {@link #processAll(Consumer)} seitenweise in
+     * kurzen Lesetransaktionen; es entstehen keine Entitaeten.
+     *
+     * @param done {@code null} fuer alle, sonst nur Todos mit diesem Status
+     * @param action wird fuer jede Kurzfassung aufgerufen
+     */
+    public void processSummaries(Boolean done, Consumer<TodoSummary> action) {
+        long after = 0;
+        List<TodoSummary> page;
+        do {
+            page = done == null
+                ? repository.findSummariesByIdGreaterThanOrderByIdAsc(after, Limit.of(PROCESS_PAGE_SIZE))
+                : repository.findSummariesByDoneAndIdGreaterThanOrderByIdAsc(done, after, Limit.of(PROCESS_PAGE_SIZE));
+            page.forEach(action);
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == PROCESS_PAGE_SIZE);
+    }
+
+    /**
+     * Liefert eine Seite von Todos per Keyset-Pagination.
+     *
+     * <p>Es wird ein Datensatz mehr als angefordert gelesen, um zu erkennen,
+     * ob eine Folgeseite existiert.
+     *
+     * @param after die letzte ID der Vorseite oder {@code null} fuer die erste Seite
+     * @param limit gewuenschte Seitengroesse, begrenzt auf 1 bis {@value #MAX_PAGE_SIZE}
+     * @return die Seite mit Cursor fuer die Folgeseite
+     */
+    public TodoPage findPage(Long after, int limit) {
+        int size = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        List<Todo> rows = repository.findByIdGreaterThanOrderByIdAsc(
+            after != null ? after : 0L, Limit.of(size + 1));
+        return toPage(rows, size);
+    }
+
+    /**
+     * Liefert eine Seite ueberfaelliger Todos per Keyset-Pagination.
+     *
+     * <p>Stichtag ist das heutige Datum laut {@link Clock}; gefiltert wird in
+     * der Datenbank, nicht per {@link Todo#isOverdue()}.
+     *
+     * @param after die letzte ID der Vorseite oder {@code null} fuer die erste Seite
+     * @param limit gewuenschte Seitengroesse, begrenzt auf 1 bis {@value #MAX_PAGE_SIZE}
+     * @return die Seite mit Cursor fuer die Folgeseite
+     */
+    public TodoPage findOverdue(Long after, int limit) {
+        int size = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        List<Todo> rows = repository.findOverdue(
+            LocalDate.now(clock), after != null ? after : 0L, Limit.of(size + 1));
+        return toPage(rows, size);
+    }
+
+    private static TodoPage toPage(List<Todo> rows, int size) {
+        if (rows.size() <= size) {
+            return new TodoPage(rows, null);
+        }
+        List<Todo> items = List.copyOf(rows.subList(0, size));
+        return new TodoPage(items, items.get(size - 1).getId());
+    }
+
     /**
      * Sucht ein Todo anhand seiner ID.
      *
@@ -37,55 +205,283 @@ public class TodoService {
     }
 
     /**
-     * Speichert ein Todo (neu oder aktualisiert).
+     * Legt ein neues Todo an.
+     *
+     * <p>Wie bei {@link #createAll(List)} werden mitgeschickte IDs und
+     * Versionen ignoriert - mit {@code @Version} haelt Spring Data ein Todo
+     * ohne Version fuer neu und wuerde es mit vorbelegter ID persistieren.
+     * Bestehende Todos aendert {@link #update(Long, Todo)}.
      *
-     * @param todo das zu speichernde Todo
+     * @param todo das neue Todo
      * @return das gespeicherte Todo mit generierter ID
      */
+    @Transactional
+    @CacheEvict(cacheNames = TODO_LISTS_CACHE, allEntries = true)
     public Todo save(Todo todo) {
-        return repository.save(todo);
+        todo.setId(null);
+        todo.setVersion(null);
+        todo.setChangeSeq(changeLog.next());
+        Todo saved = repository.save(todo);
+        events.publishEvent(TodoEvent.created(saved));
+        return saved;
     }
 
     /**
-     * Loescht ein Todo.
+     * Aktualisiert ein bestehendes Todo.
+     *
+     * <p>Bringt {@code changes} eine Version mit, muss sie der gespeicherten
+     * entsprechen - sonst hat jemand das Todo inzwischen geaendert.
+     * Gleichzeitige Aenderungen erkennt Hibernate ueber die Version im UPDATE.
+     *
+     * @param id die Todo-ID
+     * @param changes die neuen Daten, optional mit der zuletzt gelesenen Version
+     * @return das aktualisierte Todo oder empty, falls nicht vorhanden
+     * @throws ObjectOptimisticLockingFailureException wenn die Version nicht passt
+     */
+    @Transactional
+    @CacheEvict(cacheNames = TODO_LISTS_CACHE, allEntries = true)
+    public Optional<Todo> update(Long id, Todo changes) {
+        return repository.findById(id).map(todo -> {
+            checkVersion(todo, changes.getVersion());
+            todo.setTitle(changes.getTitle());
+            todo.setDescription(changes.getDescription());
+            todo.setDueDate(changes.getDueDate());
+            todo.setDone(changes.isDone());
+            todo.setChangeSeq(changeLog.next());
+            events.publishEvent(TodoEvent.updated(todo));
+            return todo;
+        });
+    }
+
+    /**
+     * Legt mehrere Todos in einer Transaktion an.
+     *
+     * <p>Die INSERTs werden per JDBC-Batching gebuendelt
+     * ({@code hibernate.jdbc.batch_size}). Mitgeschickte IDs werden ignoriert.
+     *
+     * @param todos die neuen Todos
+     * @return die gespeicherten Todos mit generierten IDs
+     */
+    @Transactional
+    @CacheEvict(cacheNames = TODO_LISTS_CACHE, allEntries = true)
+    public List<Todo> createAll(List<Todo> todos) {
+        todos.forEach(todo -> {
+            todo.setId(null);
+            todo.setChangeSeq(changeLog.next());
+        });
+        List<Todo> saved = repository.saveAll(todos);
+        saved.forEach(todo -> events.publishEvent(TodoEvent.created(todo)));
+        return saved;
+    }
+
+    /**
+     * Aktualisiert mehrere Todos in einer Transaktion.
+     *
+     * <p>Alle betroffenen Todos werden mit einer Abfrage geladen, die UPDATEs
+     * beim Commit gebuendelt geschrieben. Fehlt eines der Todos, wird die
+     * gesamte Transaktion zurueckgerollt.
+     *
+     * @param changes die neuen Daten, jeweils mit ID und optional mit Version
+     * @return die aktualisierten Todos in der Reihenfolge der Eingabe
+     * @throws IllegalArgumentException wenn ein Todo nicht existiert
+     * @throws ObjectOptimisticLockingFailureException wenn eine Version nicht passt
+     */
+    @Transactional
+    @CacheEvict(cacheNames = TODO_LISTS_CACHE, allEntries = true)
+    public List<Todo> updateAll(List<Todo> changes) {
+        List<Long> ids = changes.stream().map(Todo::getId).toList();
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Todo without id");
+        }
+        Map<Long, Todo> existing = repository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Todo::getId, Function.identity()));
+        return changes.stream().map(change -> {
+            Todo todo = existing.get(change.getId());
+            if (todo == null) {
+                throw new IllegalArgumentException("Todo not found: " + change.getId());
+            }
+            checkVersion(todo, change.getVersion());
+            todo.setTitle(change.getTitle());
+            todo.setDescription(change.getDescription());
+            todo.setDueDate(change.getDueDate());
+            todo.setDone(change.isDone());
+            todo.setChangeSeq(changeLog.next());
+            events.publishEvent(TodoEvent.updated(todo));
+            return todo;
+        }).toList();
+    }
+
+    /**
+     * Loescht mehrere Todos in einer Transaktion.
+     *
+     * <p>Die vorhandenen Todos werden gesperrt gelesen und einzeln entfernt;
+     * die DELETEs buendelt das JDBC-Batching. Nur fuer sie entstehen
+     * Grabsteine und Events; nicht vorhandene oder gleichzeitig geloeschte
+     * IDs werden ignoriert. Anders als ein Bulk-DELETE laesst das den
+     * Second-Level-Cache der uebrigen Todos unangetastet.
+     *
+     * @param ids die IDs der zu loeschenden Todos
+     * @return die IDs der tatsaechlich geloeschten Todos
+     */
+    @Transactional
+    @CacheEvict(cacheNames = TODO_LISTS_CACHE, allEntries = true)
+    public List<Long> deleteAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Todo> todos = repository.findLockedByIdIn(ids);
+        if (todos.isEmpty()) {
+            return List.of();
+        }
+        repository.deleteAll(todos);
+        List<Long> existing = todos.stream().map(Todo::getId).toList();
+        changeLog.recordDeletion(existing);
+        existing.forEach(id -> events.publishEvent(TodoEvent.deleted(id)));
+        return existing;
+    }
+
+    /**
+     * Loescht ein Todo, falls es existiert.
+     *
+     * <p>Das Todo wird ueber den Second-Level-Cache gesucht und als Entitaet
+     * entfernt: Liegt es in der Region {@code todo-entity}, bleibt es bei einem
+     * einzigen DELETE ohne vorheriges SELECT, und nur sein eigener Eintrag
+     * wird aus dem Cache entfernt. Hat es inzwischen jemand geaendert oder
+     * geloescht, schlaegt das DELETE ueber die Version fehl.
      *
      * @param id die ID des zu loeschenden Todos
+     * @return {@code true}, wenn das Todo geloescht wurde
+     * @throws ObjectOptimisticLockingFailureException bei einer gleichzeitigen Aenderung
      */
-    public void delete(Long id) {
-        repository.deleteById(id);
+    @Transactional
+    @CacheEvict(cacheNames = TODO_LISTS_CACHE, allEntries = true)
+    public boolean deleteIfExists(Long id) {
+        Optional<Todo> todo = repository.findById(id);
+        if (todo.isEmpty()) {
+            return false;
+        }
+        repository.delete(todo.get());
+        changeLog.recordDeletion(List.of(id));
+        events.publishEvent(TodoEvent.deleted(id));
+        return true;
+    }
+
+    /** Liefert alle offenen (nicht erledigten) Todos als Kurzfassung. */
+    @Cacheable(cacheNames = TODO_LISTS_CACHE, key = "'open'")
+    @Transactional(readOnly = true)
+    public List<TodoSummary> findOpen() {
+        return repository.findSummariesByDone(false);
+    }
+
+    /** Liefert alle erledigten Todos als Kurzfassung. */
+    @Cacheable(cacheNames = TODO_LISTS_CACHE, key = "'completed'")
+    @Transactional(readOnly = true)
+    public List<TodoSummary> findCompleted() {
+        return repository.findSummariesByDone(true);
     }
 
-    /** Liefert alle offenen (nicht erledigten) Todos. */
-    public List<Todo> findOpen() {
-        return repository.findByDone(false);
+    /**
+     * Liefert die Kennzahlen (gesamt, offen, erledigt, ueberfaellig).
+     *
+     * <p>Wird mit einer Aggregat-Abfrage in der Datenbank berechnet und
+     * zusammen mit den Status-Listen im Cache gehalten. Die Zahl der
+     * ueberfaelligen Todos haengt vom Datum ab, deshalb gehoert es zum
+     * Schluessel - nach Mitternacht wird neu gezaehlt.
+     *
+     * @return die aktuellen Kennzahlen
+     */
+    @Cacheable(cacheNames = TODO_LISTS_CACHE, key = "'stats-' + T(java.time.LocalDate).now(@clock)")
+    public TodoStats getStats() {
+        return repository.countStats(LocalDate.now(clock));
     }
 
-    /** Liefert alle erledigten Todos. */
-    public List<Todo> findCompleted() {
-        return repository.findByDone(true);
+    /**
+     * Liefert den Aenderungsstand aller Todos fuer bedingte GET-Requests.
+     *
+     * <p>Wird wie die Status-Listen im Cache gehalten und bei jedem
+     * Schreibzugriff invalidiert.
+     *
+     * @return der aktuelle Stand
+     */
+    @Cacheable(cacheNames = TODO_LISTS_CACHE, key = "'version'")
+    public TodoListVersion getListVersion() {
+        return repository.findListVersion();
     }
 
     /**
      * Markiert ein Todo als erledigt.
      *
+     * <p>Das Todo wird gesperrt gelesen und als Entitaet geaendert: Gleichzeitige
+     * Aufrufe warten aufeinander statt mit einem Versionskonflikt
+     * abzubrechen, und der Second-Level-Cache aktualisiert nur diesen einen
+     * Eintrag. Ist es bereits erledigt, bleibt es unveraendert und bekommt
+     * keine neue Aenderungsnummer.
+     *
      * @param id die Todo-ID
-     * @return das aktualisierte Todo
+     * @return das erledigte Todo
      * @throws IllegalArgumentException wenn das Todo nicht existiert
      */
+    @Transactional
+    @CacheEvict(cacheNames = TODO_LISTS_CACHE, allEntries = true)
     public Todo markDone(Long id) {
-        Todo todo = repository.findById(id)
+        Todo todo = repository.findLockedById(id)
             .orElseThrow(() -> new IllegalArgumentException("Todo not found: " + id));
-        todo.markDone();
-        return repository.save(todo);
+        if (!todo.isDone()) {
+            todo.markDone();
+            todo.setChangeSeq(changeLog.next());
+            events.publishEvent(TodoEvent.done(todo));
+        }
+        return todo;
     }
 
     /**
-     * Sucht Todos nach Schluesselwort im Titel.
+     * Sucht Todos per Volltextsuche in Titel und Beschreibung.
+     *
+     * <p>Die Suche laeuft ueber den invertierten Index im {@link TodoSearchService};
+     * nur die gefundenen Todos werden per ID aus der Datenbank geladen.
      *
-     * @param keyword der Suchbegriff
-     * @return Liste der passenden Todos
+     * @param keyword die Suchbegriffe (Praefixe, unabhaengig von Gross-/Kleinschreibung)
+     * @return die besten {@value #MAX_SEARCH_RESULTS} Treffer, nach Relevanz sortiert
      */
     public List<Todo> search(String keyword) {
-        return repository.findByTitleContaining(keyword);
+        List<Long> ids = searchIndex.search(keyword, MAX_SEARCH_RESULTS);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Todo> byId = repository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Todo::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private static void checkVersion(Todo todo, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(todo.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Todo.class, todo.getId());
+        }
+    }
+
+    /**
+     * Ob der Suchindex vollstaendig aufgebaut ist.
+     *
+     * @return {@code false}, solange {@link #rebuildSearchIndex()} laeuft
+     */
+    public boolean isSearchIndexReady() {
+        return searchIndex.isReady();
+    }
+
+    /**
+     * Baut den Suchindex aus allen Todos der Datenbank neu auf.
+     *
+     * <p>Wird beim Start der Anwendung aufgerufen. Der Aufbau laeuft auf einem
+     * virtuellen Thread, damit der Start nicht auf ihn wartet; bis er fertig
+     * ist, meldet der Index den Health-Status
+     * {@value TodoSearchService#WARMING}. Schlaegt er fehl, bleibt es dabei.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSearchIndex() {
+        searchIndex.beginRebuild();
+        Thread.ofVirtual().name("search-index-rebuild").start(() -> {
+            processAll(searchIndex::rebuildEntry);
+            searchIndex.endRebuild();
+        });
     }
 }
@@ -0,0 +1,24 @@
+-- Ausgangsschema fuer Todo und Loeschmarken (entspricht den JPA-Entitaeten)
+
+create sequence todo_seq start with 1 increment by 50;
+
+create table todo (
+    id          bigint       not null,
+    title       varchar(255),
+    description varchar(255),
+    done        boolean      not null,
+    due_date    date,
+    version     bigint,
+    updated_at  timestamp(6) with time zone,
+    change_seq  bigint,
+    primary key (id)
+);
+
+create index idx_todo_change_seq on todo (change_seq);
+
+create table todo_tombstone (
+    change_seq bigint not null,
+    todo_id    bigint,
+    deleted_at timestamp(6) with time zone,
+    primary key (change_seq)
+);
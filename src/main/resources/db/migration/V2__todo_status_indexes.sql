@@ -0,0 +1,5 @@
+-- Status-Listen (offen/erledigt) und Faelligkeit ohne Full Table Scan
+
+create index idx_todo_done_due_date on todo (done, due_date);
+
+create index idx_todo_done_id on todo (done, id);
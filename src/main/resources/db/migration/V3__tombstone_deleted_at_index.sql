@@ -0,0 +1,3 @@
+-- Verdichtung sucht abgelaufene Grabsteine nach Loeschzeitpunkt
+
+create index idx_todo_tombstone_deleted_at on todo_tombstone (deleted_at);
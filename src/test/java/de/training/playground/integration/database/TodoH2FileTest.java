@@ -0,0 +1,82 @@
+package de.training.playground.integration.database;
+
+import de.training.playground.entity.Todo;
+import de.training.playground.repository.TodoRepository;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Datenbank-Tests mit dateibasierter H2 im Profil {@code prod}.
+ *
+ * <p>Das Schema legt Flyway aus {@code db/migration} an, Hibernate prueft es
+ * nur ({@code ddl-auto=validate}). Startet der Kontext, passen Migrationen
+ * und Entitaeten zusammen.
+ *
+ * <p>Demonstriert:
+ * <ul>
+ *   <li>{@code @ActiveProfiles("prod")} - Produktionskonfiguration im Test</li>
+ *   <li>{@code @TempDir} - Datenverzeichnis pro Testlauf</li>
+ *   <li>Flyway-Migrationen statt {@code create-drop}</li>
+ * </ul>
+ *
+ * @see ActiveProfiles
+ * @see TempDir
+ */
+@Epic("Integration Tests")
+@Feature("database")
+@SpringBootTest
+@ActiveProfiles("prod")
+@Transactional
+@DisplayName("H2 dateibasiert (Profil prod)")
+class TodoH2FileTest {
+
+    @TempDir
+    static Path dataDir;
+
+    @Autowired
+    private TodoRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("playground.data-dir", () -> dataDir.toString());
+    }
+
+    @Test
+    @DisplayName("Flyway legt das Schema in der Datei an")
+    void flywayCreatesSchemaInFile() {
+        Integer applied = jdbcTemplate.queryForObject(
+            "select count(*) from \"flyway_schema_history\" where \"success\"", Integer.class);
+
+        assertThat(applied).isPositive();
+        assertThat(Files.exists(dataDir.resolve("playground.mv.db"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Todo gegen das migrierte Schema speichern und laden")
+    void saveAndLoadWithMigratedSchema() {
+        Todo saved = repository.save(new Todo("Dauerhaft", "In der Datei", LocalDate.now()));
+
+        Todo loaded = repository.findById(saved.getId()).orElseThrow();
+
+        assertThat(loaded.getTitle()).isEqualTo("Dauerhaft");
+        assertThat(loaded.getVersion()).isZero();
+    }
+}
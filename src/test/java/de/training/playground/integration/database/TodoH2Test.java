@@ -8,6 +8,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +29,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  *   <li>Persistenz verschiedener Datentypen (String, LocalDate, Boolean)</li>
  *   <li>CRUD-Operationen (Create, Read, Update, Delete)</li>
  *   <li>Repository-Methoden wie {@code count()}, {@code findAll()}</li>
+ *   <li>Index-Nutzung per {@code EXPLAIN} pruefen</li>
  * </ul>
  *
  * <p><b>Vorteile von H2:</b>
@@ -52,6 +54,9 @@ class TodoH2Test {
     @Autowired
     private TodoRepository repository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setUp() {
         repository.deleteAll();
@@ -154,6 +159,33 @@ class TodoH2Test {
             .containsExactlyInAnyOrder("A", "B", "C");
     }
 
+    @Test
+    @DisplayName("Offene Todos nach Faelligkeit nutzen den Index (done, due_date)")
+    void explain_openByDueDateUsesIndex() {
+        String plan = jdbcTemplate.queryForObject(
+            "explain select id from todo where done = false and due_date < current_date", String.class);
+
+        assertThat(plan).containsIgnoringCase("idx_todo_done_due_date");
+    }
+
+    @Test
+    @DisplayName("Keyset-Seite nach Status nutzt den Index (done, id)")
+    void explain_keysetByStatusUsesIndex() {
+        String plan = jdbcTemplate.queryForObject(
+            "explain select id from todo where done = false and id > 100 order by id limit 20", String.class);
+
+        assertThat(plan).containsIgnoringCase("idx_todo_done_id");
+    }
+
+    @Test
+    @DisplayName("Kurzfassungen nach Status (processSummaries) nutzen den Index (done, id)")
+    void explain_summariesByStatusUseIndex() {
+        String plan = jdbcTemplate.queryForObject(
+            "explain select id, title, done, due_date from todo where done = true and id > 100 order by id fetch first 500 rows only", String.class);
+
+        assertThat(plan).containsIgnoringCase("idx_todo_done_id");
+    }
+
     private Todo createTodo(String title) {
         Todo todo = new Todo();
         todo.setTitle(title);
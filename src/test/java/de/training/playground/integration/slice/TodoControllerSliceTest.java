@@ -2,8 +2,16 @@ package de.training.playground.integration.slice;
 
 import de.training.playground.controller.TodoRestController;
 import de.training.playground.entity.Todo;
+import de.training.playground.entity.TodoImportResult;
+import de.training.playground.entity.TodoListVersion;
+import de.training.playground.entity.TodoPage;
+import de.training.playground.entity.TodoSummary;
+import de.training.playground.service.TodoChangeService;
+import de.training.playground.service.TodoCsvService;
+import de.training.playground.service.TodoEventService;
 import de.training.playground.service.TodoService;
 import io.qameta.allure.*;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,8 +22,13 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -58,19 +71,77 @@ class TodoControllerSliceTest {
     @MockBean
     private TodoService todoService;
 
+    @MockBean
+    private TodoChangeService changeService;
+
+    @MockBean
+    private TodoEventService eventService;
+
+    @MockBean
+    private TodoCsvService csvService;
+
+    @BeforeEach
+    void setUp() {
+        when(todoService.getListVersion()).thenReturn(new TodoListVersion(0, 0, 0));
+    }
+
     @Test
     @DisplayName("GET /api/todos gibt alle Todos")
     void getAllTodos() throws Exception {
-        Todo todo1 = createTodo(1L, "Todo 1");
-        Todo todo2 = createTodo(2L, "Todo 2");
-        when(todoService.findAll()).thenReturn(List.of(todo1, todo2));
+        when(todoService.findAllSummaries()).thenReturn(List.of(
+            new TodoSummary(1L, "Todo 1", false, null),
+            new TodoSummary(2L, "Todo 2", true, null)));
 
         mockMvc.perform(get("/api/todos"))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON))
             .andExpect(jsonPath("$.length()").value(2))
             .andExpect(jsonPath("$[0].title").value("Todo 1"))
-            .andExpect(jsonPath("$[1].title").value("Todo 2"));
+            .andExpect(jsonPath("$[1].title").value("Todo 2"))
+            .andExpect(jsonPath("$[0].description").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/todos/open mit Accept NDJSON streamt eine Zeile pro Todo")
+    @SuppressWarnings("unchecked")
+    void getOpenTodosAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<TodoSummary> action = invocation.getArgument(1);
+            action.accept(new TodoSummary(1L, "Todo 1", false, null));
+            action.accept(new TodoSummary(2L, "Todo 2", false, null));
+            return null;
+        }).when(todoService).processSummaries(eq(false), any());
+
+        mockMvc.perform(get("/api/todos/open").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string("""
+                {"id":1,"title":"Todo 1","done":false,"dueDate":null}
+                {"id":2,"title":"Todo 2","done":false,"dueDate":null}
+                """));
+        verify(todoService, never()).findOpen();
+    }
+
+    @Test
+    @DisplayName("GET /api/todos mit Wildcard-Accept bleibt bei JSON")
+    void getAllTodosWithWildcardAcceptReturnsJson() throws Exception {
+        when(todoService.findAllSummaries()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/todos").accept(MediaType.ALL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("GET /api/todos/overdue liefert Seite mit Cursor")
+    void getOverdue_returnsPage() throws Exception {
+        when(todoService.findOverdue(5L, 1))
+            .thenReturn(new TodoPage(List.of(createTodo(7L, "Ueberfaellig")), 7L));
+
+        mockMvc.perform(get("/api/todos/overdue").param("after", "5").param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].id").value(7))
+            .andExpect(jsonPath("$.nextCursor").value(7));
     }
 
     @Test
@@ -108,19 +179,42 @@ class TodoControllerSliceTest {
             .andExpect(jsonPath("$.title").value("Neues Todo"));
     }
 
+    @Test
+    @DisplayName("POST /api/todos/import liefert Anzahl und Fehler pro Zeile")
+    void importCsv() throws Exception {
+        when(csvService.importCsv(any())).thenReturn(new TodoImportResult(2, 0, List.of()));
+
+        mockMvc.perform(post("/api/todos/import")
+                .contentType(new MediaType("text", "csv"))
+                .content("ID;Titel;Beschreibung;Faellig;Erledigt\n1;A;;;Nein\n2;B;;;Ja\n"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.failed").value(0))
+            .andExpect(jsonPath("$.errors").isEmpty());
+    }
+
     @Test
     @DisplayName("DELETE /api/todos/{id} loescht Todo")
     void deleteTodo() throws Exception {
-        when(todoService.findById(1L)).thenReturn(Optional.of(createTodo(1L, "Test")));
+        when(todoService.deleteIfExists(1L)).thenReturn(true);
 
         mockMvc.perform(delete("/api/todos/1"))
             .andExpect(status().isNoContent());
     }
 
+    @Test
+    @DisplayName("DELETE /api/todos/{id} mit unbekannter ID gibt 404")
+    void deleteTodo_notFound() throws Exception {
+        when(todoService.deleteIfExists(999L)).thenReturn(false);
+
+        mockMvc.perform(delete("/api/todos/999"))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("Leere Todos-Liste")
     void emptyTodosList() throws Exception {
-        when(todoService.findAll()).thenReturn(List.of());
+        when(todoService.findAllSummaries()).thenReturn(List.of());
 
         mockMvc.perform(get("/api/todos"))
             .andExpect(status().isOk())
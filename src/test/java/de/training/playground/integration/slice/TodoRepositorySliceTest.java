@@ -1,6 +1,8 @@
 package de.training.playground.integration.slice;
 
 import de.training.playground.entity.Todo;
+import de.training.playground.entity.TodoStats;
+import de.training.playground.entity.TodoSummary;
 import de.training.playground.repository.TodoRepository;
 import io.qameta.allure.*;
 import org.junit.jupiter.api.DisplayName;
@@ -8,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -90,6 +93,25 @@ class TodoRepositorySliceTest {
         assertThat(doneTodos.get(0).getTitle()).isEqualTo("Erledigt");
     }
 
+    @Test
+    @DisplayName("findSummariesByDone liefert Kurzfassungen ohne Entitaeten")
+    void findSummariesByDone() {
+        Todo open = new Todo("Offen", "Lange Beschreibung", LocalDate.of(2030, 1, 1));
+        entityManager.persist(open);
+        Todo done = createTodo("Erledigt");
+        done.markDone();
+        entityManager.persist(done);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TodoSummary> openTodos = repository.findSummariesByDone(false);
+
+        assertThat(openTodos).containsExactly(
+            new TodoSummary(open.getId(), "Offen", false, LocalDate.of(2030, 1, 1)));
+        assertThat(repository.findAllSummaries()).extracting(TodoSummary::id)
+            .containsExactly(open.getId(), done.getId());
+    }
+
     @Test
     @DisplayName("findByTitleContaining findet Todos per Suchbegriff")
     void findByTitleContaining() {
@@ -135,6 +157,74 @@ class TodoRepositorySliceTest {
         assertThat(found.getDueDate()).isEqualTo(LocalDate.of(2026, 12, 31));
     }
 
+    @Test
+    @DisplayName("Keyset-Query liefert naechste Seite ab Cursor")
+    void findByIdGreaterThan_returnsNextPage() {
+        Todo first = entityManager.persist(createTodo("Eins"));
+        Todo second = entityManager.persist(createTodo("Zwei"));
+        Todo third = entityManager.persist(createTodo("Drei"));
+        entityManager.persist(createTodo("Vier"));
+        entityManager.flush();
+
+        List<Todo> page = repository.findByIdGreaterThanOrderByIdAsc(first.getId(), Limit.of(2));
+
+        assertThat(page).extracting(Todo::getId)
+            .containsExactly(second.getId(), third.getId());
+    }
+
+    @Test
+    @DisplayName("findOverdue liefert nur offene, vor dem Stichtag faellige Todos ab Cursor")
+    void findOverdue_returnsOpenTodosDueBeforeToday() {
+        LocalDate today = LocalDate.of(2026, 6, 15);
+        Todo first = createTodo("Ueberfaellig 1");
+        first.setDueDate(today.minusDays(3));
+        entityManager.persist(first);
+        Todo second = createTodo("Ueberfaellig 2");
+        second.setDueDate(today.minusDays(1));
+        entityManager.persist(second);
+        Todo dueToday = createTodo("Heute faellig");
+        dueToday.setDueDate(today);
+        entityManager.persist(dueToday);
+        Todo doneLate = createTodo("Erledigt, aber spaet");
+        doneLate.setDueDate(today.minusDays(5));
+        doneLate.markDone();
+        entityManager.persist(doneLate);
+        entityManager.persist(createTodo("Ohne Datum"));
+        entityManager.flush();
+
+        assertThat(repository.findOverdue(today, 0L, Limit.of(10))).extracting(Todo::getId)
+            .containsExactly(first.getId(), second.getId());
+        assertThat(repository.findOverdue(today, first.getId(), Limit.of(10))).extracting(Todo::getId)
+            .containsExactly(second.getId());
+    }
+
+    @Test
+    @DisplayName("countStats zaehlt offene, erledigte und ueberfaellige Todos")
+    void countStats() {
+        LocalDate today = LocalDate.of(2026, 6, 15);
+        Todo overdue = createTodo("Ueberfaellig");
+        overdue.setDueDate(today.minusDays(1));
+        entityManager.persist(overdue);
+        Todo dueToday = createTodo("Heute faellig");
+        dueToday.setDueDate(today);
+        entityManager.persist(dueToday);
+        Todo doneLate = createTodo("Erledigt, aber spaet");
+        doneLate.setDueDate(today.minusDays(5));
+        doneLate.markDone();
+        entityManager.persist(doneLate);
+        entityManager.flush();
+
+        TodoStats stats = repository.countStats(today);
+
+        assertThat(stats).isEqualTo(new TodoStats(3, 2, 1, 1));
+    }
+
+    @Test
+    @DisplayName("countStats liefert Nullen fuer leere Tabelle")
+    void countStats_emptyTable() {
+        assertThat(repository.countStats(LocalDate.now())).isEqualTo(new TodoStats(0, 0, 0, 0));
+    }
+
     private Todo createTodo(String title) {
         Todo todo = new Todo();
         todo.setTitle(title);
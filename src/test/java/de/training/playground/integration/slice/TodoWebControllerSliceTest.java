@@ -0,0 +1,200 @@
+package de.training.playground.integration.slice;
+
+import de.training.playground.controller.TodoWebController;
+import de.training.playground.entity.Todo;
+import de.training.playground.entity.TodoPage;
+import de.training.playground.entity.TodoImportResult;
+import de.training.playground.entity.TodoStats;
+import de.training.playground.service.TodoCsvService;
+import de.training.playground.service.TodoService;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Slice-Test fuer den {@link TodoWebController} mit {@code @WebMvcTest}.
+ *
+ * <p>Demonstriert:
+ * <ul>
+ *   <li>{@code doAnswer()} - Callback-Parameter eines Mocks bedienen</li>
+ *   <li>{@code asyncDispatch()} - asynchrone Responses (z.B. {@code StreamingResponseBody}) pruefen</li>
+ * </ul>
+ *
+ * @see WebMvcTest
+ * @see TodoControllerSliceTest
+ */
+@Epic("Integration Tests")
+@Feature("slice")
+@WebMvcTest(TodoWebController.class)
+@DisplayName("TodoWebController Slice-Test")
+class TodoWebControllerSliceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TodoService todoService;
+
+    @MockBean
+    private TodoCsvService csvService;
+
+    @Test
+    @DisplayName("GET / zeigt erste Seite und Kennzahlen aus der Aggregat-Abfrage")
+    void indexShowsFirstPageAndStats() throws Exception {
+        List<Todo> items = List.of(createTodo(1L, "Erstes"), createTodo(2L, "Zweites"));
+        when(todoService.findPage(isNull(), anyInt())).thenReturn(new TodoPage(items, 2L));
+        when(todoService.getStats()).thenReturn(new TodoStats(120, 100, 20, 7));
+
+        mockMvc.perform(get("/"))
+            .andExpect(status().isOk())
+            .andExpect(view().name("index"))
+            .andExpect(model().attribute("todos", items))
+            .andExpect(model().attribute("nextCursor", 2L))
+            .andExpect(content().string(containsString("Gesamt: 120")))
+            .andExpect(content().string(containsString("Offen: 100")))
+            .andExpect(content().string(containsString("Ueberfaellig: 7")))
+            .andExpect(content().string(containsString("/?after=2")));
+    }
+
+    @Test
+    @DisplayName("GET /?q= weist auf den noch laufenden Aufbau des Suchindex hin")
+    void searchShowsWarmingNotice() throws Exception {
+        when(todoService.search("einkaufen")).thenReturn(List.of(createTodo(1L, "Einkaufen")));
+        when(todoService.getStats()).thenReturn(new TodoStats(1, 1, 0, 0));
+        when(todoService.isSearchIndexReady()).thenReturn(false);
+
+        mockMvc.perform(get("/").param("q", "einkaufen"))
+            .andExpect(status().isOk())
+            .andExpect(model().attribute("searchWarming", true))
+            .andExpect(content().string(containsString("Suchindex wird noch aufgebaut")));
+
+        when(todoService.isSearchIndexReady()).thenReturn(true);
+
+        mockMvc.perform(get("/").param("q", "einkaufen"))
+            .andExpect(model().attribute("searchWarming", false))
+            .andExpect(content().string(not(containsString("Suchindex wird noch aufgebaut"))));
+    }
+
+    @Test
+    @DisplayName("GET /export streamt alle Todos als CSV")
+    @SuppressWarnings("unchecked")
+    void exportStreamsCsv() throws Exception {
+        Todo open = createTodo(1L, "Einkaufen");
+        open.setDescription("Milch");
+        open.setDueDate(LocalDate.of(2026, 12, 31));
+        Todo done = createTodo(2L, "Sport");
+        done.markDone();
+        doAnswer(invocation -> {
+            Consumer<Todo> action = invocation.getArgument(0);
+            action.accept(open);
+            action.accept(done);
+            return null;
+        }).when(todoService).processAll(any());
+
+        MvcResult result = mockMvc.perform(get("/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Disposition", "attachment; filename=todos.csv"))
+            .andExpect(content().contentType("text/csv;charset=UTF-8"))
+            .andExpect(content().string("""
+                ID;Titel;Beschreibung;Faellig;Erledigt
+                1;Einkaufen;Milch;2026-12-31;Nein
+                2;Sport;;;Ja
+                """));
+    }
+
+    @Test
+    @DisplayName("GET /export setzt Felder mit Trennzeichen in Anfuehrungszeichen")
+    @SuppressWarnings("unchecked")
+    void exportQuotesSpecialCharacters() throws Exception {
+        Todo todo = createTodo(1L, "Milch; Brot");
+        todo.setDescription("Sagte \"bald\"\nzweite Zeile");
+        doAnswer(invocation -> {
+            Consumer<Todo> action = invocation.getArgument(0);
+            action.accept(todo);
+            return null;
+        }).when(todoService).processAll(any());
+
+        MvcResult result = mockMvc.perform(get("/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(content().string("""
+                ID;Titel;Beschreibung;Faellig;Erledigt
+                1;"Milch; Brot";"Sagte ""bald""
+                zweite Zeile";;Nein
+                """));
+    }
+
+    @Test
+    @DisplayName("POST /import liefert das Ergebnis, 400 bei falscher Kopfzeile")
+    void importReturnsResult() throws Exception {
+        when(csvService.importCsv(any())).thenReturn(
+            new TodoImportResult(1, 1, List.of(new TodoImportResult.RowError(3, "Ungueltiges Datum: morgen"))));
+
+        mockMvc.perform(post("/import")
+                .contentType(new MediaType("text", "csv"))
+                .content("ID;Titel;Beschreibung;Faellig;Erledigt\n1;A;;;Nein\n2;B;;morgen;Nein\n"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(1))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.errors[0].line").value(3));
+
+        doThrow(new IllegalArgumentException("Kopfzeile")).when(csvService).importCsv(any());
+        mockMvc.perform(post("/import")
+                .contentType(new MediaType("text", "csv"))
+                .content("Titel\nA\n"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /{id}/edit zeigt bei Versionskonflikt das Formular mit aktuellem Stand")
+    void editWithStaleVersionShowsCurrentState() throws Exception {
+        Todo current = createTodo(1L, "Inzwischen geaendert");
+        current.setVersion(3L);
+        when(todoService.findById(1L)).thenReturn(Optional.of(current));
+        when(todoService.update(eq(1L), any())).thenThrow(new ObjectOptimisticLockingFailureException(Todo.class, 1L));
+
+        mockMvc.perform(post("/1/edit").param("title", "Meine Aenderung").param("version", "2"))
+            .andExpect(status().isOk())
+            .andExpect(view().name("edit"))
+            .andExpect(model().attribute("conflict", true))
+            .andExpect(content().string(containsString("Inzwischen geaendert")))
+            .andExpect(content().string(containsString("name=\"version\" value=\"3\"")));
+    }
+
+    private Todo createTodo(Long id, String title) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setTitle(title);
+        return todo;
+    }
+}
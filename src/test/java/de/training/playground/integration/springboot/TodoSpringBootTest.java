@@ -1,16 +1,37 @@
 package de.training.playground.integration.springboot;
 
 import de.training.playground.entity.Todo;
+import de.training.playground.entity.TodoChanges;
+import de.training.playground.entity.TodoImportResult;
+import de.training.playground.entity.TodoSummary;
 import de.training.playground.repository.TodoRepository;
+import de.training.playground.service.TodoChangeService;
+import de.training.playground.service.TodoCsvService;
 import de.training.playground.service.TodoService;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.qameta.allure.*;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -46,6 +67,30 @@ class TodoSpringBootTest {
     @Autowired
     private TodoRepository repository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TodoChangeService changeService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private Clock clock;
+
+    @Autowired
+    private TodoCsvService csvService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Environment environment;
+
     @BeforeEach
     void setUp() {
         repository.deleteAll();
@@ -94,6 +139,7 @@ class TodoSpringBootTest {
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @DisplayName("Suche findet Todos nach Titelbestandteil")
     void search_findsByTitlePart() {
         Todo todo1 = new Todo();
@@ -104,10 +150,35 @@ class TodoSpringBootTest {
         todo2.setTitle("Sport machen");
         service.save(todo2);
 
-        List<Todo> result = service.search("Einkauf");
+        try {
+            List<Todo> result = service.search("Einkauf");
+
+            assertEquals(1, result.size());
+            assertEquals("Einkaufen gehen", result.get(0).getTitle());
+        } finally {
+            service.deleteAll(List.of(todo1.getId(), todo2.getId()));
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Zurueckgerollte Aenderungen landen nicht im Suchindex")
+    void search_ignoresRolledBackUpdates() {
+        Todo saved = service.save(new Todo("Vorher"));
+        Todo change = new Todo("Nachher");
+        change.setId(saved.getId());
+        Todo missing = new Todo("Fehlt");
+        missing.setId(-1L);
+
+        try {
+            assertThrows(IllegalArgumentException.class,
+                () -> service.updateAll(List.of(change, missing)));
 
-        assertEquals(1, result.size());
-        assertEquals("Einkaufen gehen", result.get(0).getTitle());
+            assertTrue(service.search("Nachher").isEmpty());
+            assertEquals(1, service.search("Vorher").size());
+        } finally {
+            service.deleteIfExists(saved.getId());
+        }
     }
 
     @Test
@@ -117,9 +188,26 @@ class TodoSpringBootTest {
         todo.setTitle("Zu loeschen");
         Todo saved = service.save(todo);
 
-        service.delete(saved.getId());
+        assertTrue(service.deleteIfExists(saved.getId()));
 
         assertTrue(service.findById(saved.getId()).isEmpty());
+        assertFalse(service.deleteIfExists(saved.getId()));
+    }
+
+    @Test
+    @DisplayName("deleteAll legt Grabsteine nur fuer tatsaechlich geloeschte Todos an")
+    void deleteAll_recordsOnlyExistingTodos() {
+        Todo saved = service.save(new Todo("Vorhanden"));
+        Long missing = saved.getId() + 1000;
+
+        assertEquals(List.of(saved.getId()), service.deleteAll(List.of(saved.getId(), missing)));
+        assertEquals(List.of(), service.deleteAll(List.of(saved.getId())));
+
+        List<Long> tombstones = entityManager
+            .createQuery("select t.todoId from TodoTombstone t where t.todoId in :ids", Long.class)
+            .setParameter("ids", List.of(saved.getId(), missing))
+            .getResultList();
+        assertEquals(List.of(saved.getId()), tombstones);
     }
 
     @Test
@@ -134,9 +222,291 @@ class TodoSpringBootTest {
         done.markDone();
         service.save(done);
 
-        List<Todo> openTodos = service.findOpen();
+        List<TodoSummary> openTodos = service.findOpen();
 
         assertEquals(1, openTodos.size());
-        assertEquals("Offen", openTodos.get(0).getTitle());
+        assertEquals("Offen", openTodos.get(0).title());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("findById liefert bei jedem Aufruf eine eigene Instanz aus dem Second-Level-Cache")
+    void findById_doesNotShareCachedInstances() {
+        Todo saved = service.save(new Todo("Gecacht"));
+        try {
+            Todo first = service.findById(saved.getId()).orElseThrow();
+            first.setTitle("Lokal geaendert");
+
+            Todo second = service.findById(saved.getId()).orElseThrow();
+
+            assertNotSame(first, second);
+            assertEquals("Gecacht", second.getTitle());
+            assertFalse(cacheManager.getCacheNames().contains("todo"));
+        } finally {
+            service.deleteIfExists(saved.getId());
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Kennzahlen werden pro Tag gecacht")
+    void cache_statsAreKeyedByDate() {
+        Cache cache = cacheManager.getCache(TodoService.TODO_LISTS_CACHE);
+        Todo saved = service.save(new Todo("Offen"));
+        try {
+            service.getStats();
+
+            assertNotNull(cache.get("stats-" + LocalDate.now(clock)));
+            assertNull(cache.get("stats-" + LocalDate.now(clock).minusDays(1)));
+        } finally {
+            service.deleteIfExists(saved.getId());
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Status-Listen werden bei markDone invalidiert")
+    void cache_statusListsAreEvictedByMarkDone() {
+        Cache cache = cacheManager.getCache(TodoService.TODO_LISTS_CACHE);
+        Todo saved = service.save(new Todo("Offen"));
+        try {
+            assertEquals(1, service.findOpen().size());
+            assertNotNull(cache.get("open"));
+
+            service.markDone(saved.getId());
+
+            assertNull(cache.get("open"));
+            assertTrue(service.findOpen().isEmpty());
+        } finally {
+            service.deleteIfExists(saved.getId());
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Status-Listen werden erst nach dem Commit invalidiert")
+    void cache_statusListsAreEvictedAfterCommit() {
+        Cache cache = cacheManager.getCache(TodoService.TODO_LISTS_CACHE);
+        Todo saved = service.save(new Todo("Offen"));
+        try {
+            service.findOpen();
+
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                service.markDone(saved.getId());
+                assertNotNull(cache.get("open"), "vor dem Commit noch gecacht");
+            });
+
+            assertNull(cache.get("open"));
+        } finally {
+            service.deleteIfExists(saved.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Service-Aufrufe und gelieferte Zeilen werden gemessen")
+    void metrics_recordServiceCallsAndRows() {
+        service.save(new Todo("Gemessen"));
+        service.save(new Todo("Auch gemessen"));
+
+        service.findAll();
+
+        assertTrue(meterRegistry.get("todo.service").tag("method", "findAll").timer().count() >= 1);
+        var rows = meterRegistry.get("todo.repository.rows").tag("method", "findAll").summary();
+        long calls = rows.count();
+        double total = rows.totalAmount();
+
+        service.findAll();
+
+        assertEquals(calls + 1, rows.count());
+        assertEquals(total + 2, rows.totalAmount());
+    }
+
+    @Test
+    @DisplayName("Fehlgeschlagene Service-Aufrufe werden als Fehler gezaehlt")
+    void metrics_countErrors() {
+        assertThrows(IllegalArgumentException.class, () -> service.markDone(-1L));
+        var errors = meterRegistry.get("todo.service.errors")
+            .tag("method", "markDone").tag("exception", "IllegalArgumentException").counter();
+        double before = errors.count();
+
+        assertThrows(IllegalArgumentException.class, () -> service.markDone(-1L));
+
+        assertEquals(before + 1, errors.count());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Verbindungspool meldet Groesse und Wartezeit als Metriken")
+    void metrics_exposeConnectionPool() {
+        int maxPoolSize = environment.getRequiredProperty("spring.datasource.hikari.maximum-pool-size", Integer.class);
+        var acquire = meterRegistry.get("hikaricp.connections.acquire").tag("pool", "playground").timer();
+        long before = acquire.count();
+
+        service.findAll();
+
+        assertEquals(maxPoolSize, meterRegistry.get("hikaricp.connections.max").tag("pool", "playground").gauge().value());
+        meterRegistry.get("hikaricp.connections.active").tag("pool", "playground").gauge();
+        meterRegistry.get("hikaricp.connections.idle").tag("pool", "playground").gauge();
+        meterRegistry.get("hikaricp.connections.pending").tag("pool", "playground").gauge();
+        assertTrue(acquire.count() > before);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Zweiter Zugriff nach ID kommt aus dem Second-Level-Cache")
+    void secondLevelCache_servesRepeatedLoadsById() {
+        Long id = repository.save(new Todo("Selten geaendert")).getId();
+        var hits = meterRegistry.get("hibernate.second.level.cache.requests")
+            .tag("region", "todo-entity").tag("result", "hit").functionCounter();
+        try {
+            repository.findById(id);
+            double before = hits.count();
+
+            repository.findById(id);
+
+            assertEquals(before + 1, hits.count());
+        } finally {
+            service.deleteIfExists(id);
+        }
+    }
+
+    @Test
+    @DisplayName("Export liest am Second-Level-Cache vorbei")
+    void processAll_doesNotFillSecondLevelCache() {
+        repository.saveAndFlush(new Todo("Nur exportiert"));
+        var puts = meterRegistry.get("hibernate.second.level.cache.puts")
+            .tag("region", "todo-entity").functionCounter();
+        entityManager.clear();
+        double before = puts.count();
+
+        List<String> titles = new ArrayList<>();
+        service.processAll(todo -> titles.add(todo.getTitle()));
+
+        assertEquals(List.of("Nur exportiert"), titles);
+        assertEquals(before, puts.count());
+    }
+
+    @Test
+    @DisplayName("Query-Cache fuer findByDone wird durch markDone invalidiert")
+    void queryCache_isInvalidatedByMarkDone() {
+        Todo todo = repository.saveAndFlush(new Todo("Offen"));
+        assertEquals(1, repository.findByDone(false).size());
+        assertEquals(1, repository.findByDone(false).size());
+
+        service.markDone(todo.getId());
+
+        assertTrue(repository.findByDone(false).isEmpty());
+        assertEquals(1, repository.findByDone(true).size());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("changesSince liefert nur Aenderungen und Loeschungen nach dem Token")
+    void changesSince_returnsOnlyNewerChanges() {
+        Todo kept = service.save(new Todo("Bleibt"));
+        Todo removed = service.save(new Todo("Wird geloescht"));
+        long token = changeService.changesSince(0, TodoChangeService.MAX_CHANGES).token();
+
+        service.markDone(kept.getId());
+        service.deleteIfExists(removed.getId());
+        Todo created = service.save(new Todo("Neu"));
+
+        try {
+            TodoChanges changes = changeService.changesSince(token, TodoChangeService.MAX_CHANGES);
+
+            assertEquals(List.of(kept.getId(), created.getId()),
+                changes.changed().stream().map(Todo::getId).toList());
+            assertEquals(List.of(removed.getId()), changes.deleted());
+            assertTrue(changes.token() > token);
+            assertTrue(changeService.changesSince(changes.token(), TodoChangeService.MAX_CHANGES).changed().isEmpty());
+        } finally {
+            service.deleteAll(List.of(kept.getId(), created.getId()));
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("changesSince ueberspringt keine Aenderung einer noch offenen Transaktion")
+    void changesSince_waitsForOpenTransactions() {
+        long token = changeService.changesSince(0, TodoChangeService.MAX_CHANGES).token();
+        Todo slow = new Todo("Langsam");
+        Todo fast = new Todo("Schnell");
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                service.save(slow);
+                CompletableFuture.runAsync(() -> service.save(fast)).join();
+
+                TodoChanges changes = changeService.changesSince(token, TodoChangeService.MAX_CHANGES);
+
+                assertTrue(fast.getChangeSeq() > slow.getChangeSeq());
+                assertTrue(changes.changed().isEmpty());
+                assertTrue(changes.token() < slow.getChangeSeq());
+            });
+
+            assertEquals(List.of(slow.getId(), fast.getId()),
+                changeService.changesSince(token, TodoChangeService.MAX_CHANGES).changed().stream().map(Todo::getId).toList());
+        } finally {
+            service.deleteAll(List.of(slow.getId(), fast.getId()));
+        }
+    }
+
+    @Test
+    @DisplayName("Re-Import eines CSV-Exports ergibt dieselben Todos")
+    void csvImport_roundTripsExport() throws IOException {
+        Todo quoted = new Todo("Milch; Brot", "Sagte \"bald\"\r\nzweite Zeile", LocalDate.of(2026, 12, 31));
+        Todo done = new Todo("Sport", null, null);
+        done.setDone(true);
+        service.createAll(List.of(quoted, done, new Todo("Ohne Datum", "nur Beschreibung", null)));
+        List<String> before = contents();
+
+        StringWriter csv = new StringWriter();
+        TodoCsvService.writeHeader(csv);
+        service.processAll(todo -> {
+            try {
+                TodoCsvService.writeRow(csv, todo);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        repository.deleteAllInBatch();
+
+        TodoImportResult result = csvService.importCsv(new StringReader(csv.toString()));
+
+        assertEquals(3, result.imported());
+        assertEquals(0, result.failed());
+        assertEquals(before, contents());
+    }
+
+    @Test
+    @DisplayName("CSV-Import meldet fehlerhafte Zeilen und importiert den Rest")
+    void csvImport_reportsInvalidRows() throws IOException {
+        String csv = """
+            ID;Titel;Beschreibung;Faellig;Erledigt
+            1;Gueltig;;2026-01-31;Nein
+            2;Datum;;31.01.2026;Nein
+            3;Status;;;Vielleicht
+            4;zu wenig Spalten
+            5;;ohne Titel;;Nein
+            6; ;leerer Titel;;Nein
+            7;Auch gueltig;;;Ja
+            """;
+
+        TodoImportResult result = csvService.importCsv(new StringReader(csv));
+
+        assertEquals(2, result.imported());
+        assertEquals(5, result.failed());
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L), result.errors().stream().map(TodoImportResult.RowError::line).toList());
+        assertEquals("Titel fehlt", result.errors().get(3).message());
+        assertEquals(List.of("Gueltig|null|2026-01-31|false", "Auch gueltig|null|null|true"), contents());
+        assertThrows(IllegalArgumentException.class,
+            () -> csvService.importCsv(new StringReader("Titel;Erledigt\nA;Ja\n")));
+    }
+
+    /** Inhalt aller Todos ohne ID und Version, aufsteigend nach ID. */
+    private List<String> contents() {
+        return repository.findAll(Sort.by("id")).stream()
+            .map(t -> t.getTitle() + "|" + t.getDescription() + "|" + t.getDueDate() + "|" + t.isDone())
+            .toList();
     }
 }
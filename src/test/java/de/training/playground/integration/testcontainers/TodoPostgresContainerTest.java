@@ -6,6 +6,8 @@ import io.qameta.allure.*;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -30,6 +32,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  *   <li>{@code @DynamicPropertySource} - Spring mit Container verbinden</li>
  *   <li>{@code static}-Container fuer Wiederverwendung zwischen Tests</li>
  *   <li>Alle Repository-Operationen gegen echte PostgreSQL</li>
+ *   <li>Index-Nutzung per {@code EXPLAIN} pruefen</li>
  * </ul>
  *
  * <p><b>Voraussetzung:</b> Docker muss laufen!
@@ -67,6 +70,9 @@ class TodoPostgresContainerTest {
     @Autowired
     private TodoRepository repository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     /**
      * Verbindet Spring mit dem TestContainer
      * Wird VOR dem ApplicationContext-Start aufgerufen
@@ -190,4 +196,49 @@ class TodoPostgresContainerTest {
         assertThat(updated.getTitle()).isEqualTo("Aktualisiert");
         assertThat(updated.isDone()).isTrue();
     }
+
+    @Test
+    @DisplayName("Offene Todos nach Faelligkeit nutzen den Index (done, due_date)")
+    void explain_openByDueDateUsesIndex() {
+        String plan = explain("select id from todo where done = false and due_date < current_date");
+
+        assertThat(plan).contains("idx_todo_done_due_date");
+    }
+
+    @Test
+    @DisplayName("Keyset-Seite nach Status nutzt den Index (done, id)")
+    void explain_keysetByStatusUsesIndex() {
+        String plan = explain("select id from todo where done = false and id > 100 order by id limit 20");
+
+        assertThat(plan).contains("idx_todo_done_id");
+    }
+
+    @Test
+    @DisplayName("Kurzfassungen nach Status (processSummaries) nutzen den Index (done, id)")
+    void explain_summariesByStatusUseIndex() {
+        String plan = explain("select id, title, done, due_date from todo where done = true and id > 100 order by id fetch first 500 rows only");
+
+        assertThat(plan).contains("idx_todo_done_id");
+    }
+
+    /**
+     * Liefert den Ausfuehrungsplan als Text.
+     * Bei fast leerer Tabelle waere ein Seq Scan billiger - deshalb auf
+     * derselben Verbindung abschalten, um zu pruefen, ob ein Index passt.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (var statement = connection.createStatement()) {
+                statement.execute("set enable_seqscan = off");
+                var plan = new StringBuilder();
+                try (var rows = statement.executeQuery("explain " + sql)) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                statement.execute("reset enable_seqscan");
+                return plan.toString();
+            }
+        });
+    }
 }
@@ -66,7 +66,6 @@ class TodoContractTest {
                     .minArrayLike("", 1)
                         .integerType("id", 1)
                         .stringType("title", "Beispiel Todo")
-                        .stringType("description", "Eine Beschreibung")
                         .booleanType("done", false)
                     .closeArray())
             .toPact(V4Pact.class);
@@ -88,8 +88,17 @@ class TodoApiJourneyTest {
     @Severity(SeverityLevel.NORMAL)
     @Description("Markiere das Todo als erledigt")
     void step3_markTodoAsDone() {
+        String etag = given()
+            .pathParam("id", createdTodoId)
+        .when()
+            .get("/{id}")
+        .then()
+            .extract()
+            .header("ETag");
+
         given()
             .pathParam("id", createdTodoId)
+            .header("If-Match", etag)
             .contentType(ContentType.JSON)
             .body("""
                 {
@@ -1,6 +1,8 @@
 package de.training.playground.rest.mockmvc;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import de.training.playground.entity.Todo;
 import de.training.playground.repository.TodoRepository;
 import io.qameta.allure.*;
@@ -8,6 +10,7 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,6 +33,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  *   <li>Status-Code Assertions (200, 404, 204)</li>
  *   <li>Content-Type Pruefung</li>
  *   <li>ObjectMapper fuer Request-Body Serialisierung</li>
+ *   <li>Bedingte Requests mit ETag, {@code If-None-Match} und {@code If-Match}</li>
+ *   <li>Content Negotiation auf CBOR per {@code Accept}-Header</li>
  * </ul>
  *
  * <p><b>Unterschied zu RestAssured:</b> MockMvc braucht keinen laufenden Server,
@@ -84,6 +89,22 @@ class TodoMockMvcTest {
             .andExpect(jsonPath("$.description").value("Via API erstellt"));
     }
 
+    @Test
+    @DisplayName("POST /api/todos ignoriert eine mitgeschickte ID und legt ein neues Todo an")
+    void createTodo_withId_createsNewTodo() throws Exception {
+        Todo existing = repository.save(new Todo("Bestehend"));
+
+        mockMvc.perform(post("/api/todos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\": " + existing.getId() + ", \"title\": \"Neu\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(not(existing.getId().intValue())))
+            .andExpect(jsonPath("$.title").value("Neu"));
+
+        mockMvc.perform(get("/api/todos/" + existing.getId()))
+            .andExpect(jsonPath("$.title").value("Bestehend"));
+    }
+
     @Test
     @DisplayName("GET /api/todos/{id} gibt einzelnes Todo")
     void getTodoById_returnsTodo() throws Exception {
@@ -96,6 +117,21 @@ class TodoMockMvcTest {
             .andExpect(jsonPath("$.title").value("Find Me"));
     }
 
+    @Test
+    @DisplayName("GET /api/todos/{id} mit Accept CBOR liefert binaeres JSON")
+    void getTodoById_asCbor() throws Exception {
+        Todo saved = repository.save(new Todo("Binaer"));
+
+        byte[] body = mockMvc.perform(get("/api/todos/" + saved.getId())
+                .accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode todo = new CBORMapper().readTree(body);
+        Assertions.assertEquals("Binaer", todo.get("title").asText());
+    }
+
     @Test
     @DisplayName("GET /api/todos/{id} mit unbekannter ID gibt 404")
     void getTodoById_withUnknownId_returns404() throws Exception {
@@ -119,6 +155,85 @@ class TodoMockMvcTest {
             .andExpect(jsonPath("$.title").value("Updated"));
     }
 
+    @Test
+    @DisplayName("PUT /api/todos/{id} mit veralteter Version gibt 409")
+    void updateTodo_withStaleVersion_returns409() throws Exception {
+        Todo saved = repository.save(new Todo("Original"));
+
+        mockMvc.perform(put("/api/todos/" + saved.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Veraltet\", \"version\": 7}"))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("PUT /api/todos/{id} ohne Version gibt 428")
+    void updateTodo_withoutVersion_returns428() throws Exception {
+        Todo saved = repository.save(new Todo("Original"));
+
+        mockMvc.perform(put("/api/todos/" + saved.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Ohne Version\"}"))
+            .andExpect(status().isPreconditionRequired());
+    }
+
+    @Test
+    @DisplayName("PUT /api/todos/batch ohne Version lehnt den ganzen Batch mit 428 ab")
+    void updateBatch_withoutVersion_returns428() throws Exception {
+        Todo versioned = repository.save(new Todo("Mit Version"));
+        Todo unversioned = repository.save(new Todo("Ohne Version"));
+
+        mockMvc.perform(put("/api/todos/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(String.format("""
+                    [
+                        {"id": %d, "title": "Geaendert", "version": 0},
+                        {"id": %d, "title": "Geaendert"}
+                    ]
+                    """, versioned.getId(), unversioned.getId())))
+            .andExpect(status().isPreconditionRequired())
+            .andExpect(jsonPath("$.ids", contains(unversioned.getId().intValue())));
+
+        mockMvc.perform(get("/api/todos/" + versioned.getId()))
+            .andExpect(jsonPath("$.title").value("Mit Version"));
+    }
+
+    @Test
+    @DisplayName("PUT /api/todos/{id} mit If-Match aktualisiert nur den gelesenen Stand")
+    void updateTodo_withIfMatch_checksEtag() throws Exception {
+        Todo saved = repository.save(new Todo("Original"));
+        String stale = mockMvc.perform(get("/api/todos/" + saved.getId()).accept(MediaType.APPLICATION_CBOR))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        saved.setTitle("Fremde Aenderung");
+        repository.saveAndFlush(saved);
+
+        mockMvc.perform(put("/api/todos/" + saved.getId())
+                .header(HttpHeaders.IF_MATCH, stale)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Veraltet\"}"))
+            .andExpect(status().isPreconditionFailed());
+
+        String current = mockMvc.perform(get("/api/todos/" + saved.getId()))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(put("/api/todos/" + saved.getId())
+                .header(HttpHeaders.IF_MATCH, current)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Aktuell\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Aktuell"));
+    }
+
+    @Test
+    @DisplayName("PUT /api/todos/{id}/done markiert Todo als erledigt")
+    void markDone_returnsDoneTodo() throws Exception {
+        Todo saved = repository.save(new Todo("Erledigen"));
+
+        mockMvc.perform(put("/api/todos/" + saved.getId() + "/done"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.done").value(true))
+            .andExpect(jsonPath("$.version").value(1));
+    }
+
     @Test
     @DisplayName("DELETE /api/todos/{id} loescht Todo")
     void deleteTodo_removesTodo() throws Exception {
@@ -146,4 +261,107 @@ class TodoMockMvcTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$", hasSize(3)));
     }
+
+    @Test
+    @DisplayName("GET /api/todos?limit blaettert per Cursor durch alle Todos")
+    void getPage_followsCursorToLastPage() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            Todo todo = new Todo();
+            todo.setTitle("Seite " + i);
+            repository.save(todo);
+        }
+
+        String firstPage = mockMvc.perform(get("/api/todos").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items", hasSize(2)))
+            .andExpect(jsonPath("$.items[0].title").value("Seite 1"))
+            .andExpect(jsonPath("$.nextCursor").isNumber())
+            .andReturn().getResponse().getContentAsString();
+        long cursor = objectMapper.readTree(firstPage).get("nextCursor").asLong();
+
+        mockMvc.perform(get("/api/todos").param("after", String.valueOf(cursor)).param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items", hasSize(1)))
+            .andExpect(jsonPath("$.items[0].title").value("Seite 3"))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/todos?after ohne limit liefert die Seite nach dem Cursor")
+    void getPage_withAfterOnly_usesDefaultLimit() throws Exception {
+        Todo first = repository.save(new Todo("Seite 1"));
+        repository.save(new Todo("Seite 2"));
+
+        mockMvc.perform(get("/api/todos").param("after", String.valueOf(first.getId())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items", hasSize(1)))
+            .andExpect(jsonPath("$.items[0].title").value("Seite 2"))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/todos/{id} mit passendem ETag gibt 304")
+    void getTodoById_withMatchingEtag_returns304() throws Exception {
+        Todo saved = repository.save(new Todo("Unveraendert"));
+
+        String etag = mockMvc.perform(get("/api/todos/" + saved.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + saved.getId() + "-0\""))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/todos/" + saved.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("GET /api/todos/{id} als CBOR hat ein eigenes ETag und Vary: Accept")
+    void getTodoById_etagDependsOnRepresentation() throws Exception {
+        Todo saved = repository.save(new Todo("Zweimal"));
+
+        String jsonEtag = mockMvc.perform(get("/api/todos/" + saved.getId()))
+            .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/todos/" + saved.getId()).accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + saved.getId() + "-0-cbor\""))
+            .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+
+        mockMvc.perform(get("/api/todos/" + saved.getId())
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, jsonEtag))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /api/todos gibt 304, bis sich die Liste aendert")
+    void getAllTodos_withEtag_returns304UntilChanged() throws Exception {
+        repository.save(new Todo("Vorhanden"));
+
+        String etag = mockMvc.perform(get("/api/todos"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/todos").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/todos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Neu\"}"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/todos").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    @DisplayName("GET /v3/api-docs funktioniert mit verzoegert erzeugten springdoc-Beans")
+    void apiDocs_workWithLazySpringdocBeans() throws Exception {
+        mockMvc.perform(get("/v3/api-docs"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.paths['/api/todos']").exists());
+    }
 }
@@ -12,7 +12,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
 import static io.restassured.RestAssured.*;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 
 /**
@@ -30,6 +39,7 @@ import static org.hamcrest.Matchers.*;
  *   <li>Response Time Assertions</li>
  *   <li>Content-Type Pruefung</li>
  *   <li>Path-Parameter in URIs</li>
+ *   <li>Server-Sent Events mit dem JDK-{@link HttpClient} lesen</li>
  * </ul>
  *
  * <p><b>Unterschied zu MockMvc:</b> RestAssured testet gegen echten HTTP-Server,
@@ -133,7 +143,7 @@ class TodoRestAssuredTest {
 
         given()
             .contentType(ContentType.JSON)
-            .body("{\"title\": \"Updated\", \"description\": \"Geaendert\"}")
+            .body("{\"title\": \"Updated\", \"description\": \"Geaendert\", \"version\": 0}")
         .when()
             .put("/todos/{id}", saved.getId())
         .then()
@@ -190,4 +200,48 @@ class TodoRestAssuredTest {
         todo.setTitle(title);
         return todo;
     }
+
+    @Test
+    @DisplayName("GET /api/todos/stream meldet neue Todos als Event")
+    void stream_pushesCreatedEvent() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/todos/stream"))
+            .header("Accept", "text/event-stream")
+            .build();
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+            .send(request, HttpResponse.BodyHandlers.ofLines());
+
+        try (Stream<String> lines = response.body()) {
+            CompletableFuture<String> event = CompletableFuture.supplyAsync(() -> lines
+                .filter(line -> line.startsWith("event:"))
+                .findFirst().orElseThrow());
+
+            given()
+                .contentType(ContentType.JSON)
+                .body("{\"title\": \"Live\"}")
+            .when()
+                .post("/todos")
+            .then()
+                .statusCode(200);
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(event.get(5, TimeUnit.SECONDS)).isEqualTo("event:created");
+        }
+    }
+
+    @Test
+    @DisplayName("GET /api/todos wird ab 2 KB gzip-komprimiert")
+    void getAllTodos_largeResponseIsGzipped() {
+        for (int i = 0; i < 100; i++) {
+            repository.save(createTodo("Komprimiertes Todo " + i));
+        }
+
+        given()
+            .header("Accept-Encoding", "gzip")
+        .when()
+            .get("/todos")
+        .then()
+            .statusCode(200)
+            .header("Content-Encoding", "gzip")
+            .body("$", hasSize(100));
+    }
 }
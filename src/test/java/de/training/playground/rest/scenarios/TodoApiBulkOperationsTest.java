@@ -21,6 +21,7 @@ import static org.hamcrest.Matchers.*;
  *   <li>Mehrere Todos erstellen</li>
  *   <li>Filtern und Suchen</li>
  *   <li>Bulk-Loeschung</li>
+ *   <li>Batch-Endpunkte ({@code /api/todos/batch}) mit einem Request statt N</li>
  * </ul>
  */
 @Epic("REST Tests")
@@ -34,6 +35,8 @@ class TodoApiBulkOperationsTest {
 
     private static List<Long> createdIds = new ArrayList<>();
 
+    private static final List<Long> batchIds = new ArrayList<>();
+
     @BeforeEach
     void setup() {
         RestAssured.port = port;
@@ -87,8 +90,17 @@ class TodoApiBulkOperationsTest {
     @Description("Markiere alle Bulk-Todos als erledigt")
     void markAllBulkTodosAsDone() {
         for (Long id : createdIds) {
+            String etag = given()
+                .pathParam("id", id)
+            .when()
+                .get("/{id}")
+            .then()
+                .extract()
+                .header("ETag");
+
             given()
                 .pathParam("id", id)
+                .header("If-Match", etag)
                 .contentType(ContentType.JSON)
                 .body(String.format("""
                     {
@@ -123,4 +135,105 @@ class TodoApiBulkOperationsTest {
         Allure.step("Alle 5 Todos geloescht");
         createdIds.clear();
     }
+
+    @Test
+    @Order(5)
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Erstelle 5 Todos mit einem Batch-Request")
+    void createTodosInBatch() {
+        List<Long> ids = given()
+            .contentType(ContentType.JSON)
+            .body("""
+                [
+                    {"title": "Batch Todo 1"},
+                    {"title": "Batch Todo 2"},
+                    {"title": "Batch Todo 3"},
+                    {"title": "Batch Todo 4"},
+                    {"title": "Batch Todo 5"}
+                ]
+                """)
+        .when()
+            .post("/batch")
+        .then()
+            .statusCode(200)
+            .body("size()", equalTo(5))
+            .body("title", hasItems("Batch Todo 1", "Batch Todo 5"))
+            .extract()
+            .jsonPath()
+            .getList("id", Long.class);
+        batchIds.addAll(ids);
+
+        Allure.step("5 Todos in einem Request erstellt: " + batchIds);
+    }
+
+    @Test
+    @Order(6)
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Markiere alle Batch-Todos mit einem Request als erledigt")
+    void updateTodosInBatch() {
+        String body = batchIds.stream()
+            .map(id -> String.format("{\"id\": %d, \"title\": \"Batch erledigt\", \"done\": true, \"version\": 0}", id))
+            .collect(java.util.stream.Collectors.joining(",", "[", "]"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(body)
+        .when()
+            .put("/batch")
+        .then()
+            .statusCode(200)
+            .body("size()", equalTo(5))
+            .body("done", everyItem(equalTo(true)));
+    }
+
+    @Test
+    @Order(7)
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Batch-Update mit unbekannter ID aendert nichts und gibt 404")
+    void updateBatchWithUnknownId_returns404() {
+        given()
+            .contentType(ContentType.JSON)
+            .body(String.format("""
+                [
+                    {"id": %d, "title": "Darf nicht gespeichert werden", "version": 1},
+                    {"id": 999999, "title": "Unbekannt", "version": 0}
+                ]
+                """, batchIds.get(0)))
+        .when()
+            .put("/batch")
+        .then()
+            .statusCode(404);
+
+        given()
+            .pathParam("id", batchIds.get(0))
+        .when()
+            .get("/{id}")
+        .then()
+            .statusCode(200)
+            .body("title", equalTo("Batch erledigt"));
+    }
+
+    @Test
+    @Order(8)
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Loesche alle Batch-Todos mit einem Request")
+    void deleteTodosInBatch() {
+        given()
+            .contentType(ContentType.JSON)
+            .body(batchIds)
+        .when()
+            .delete("/batch")
+        .then()
+            .statusCode(204);
+
+        for (Long id : batchIds) {
+            given()
+                .pathParam("id", id)
+            .when()
+                .get("/{id}")
+            .then()
+                .statusCode(404);
+        }
+        batchIds.clear();
+    }
 }
@@ -68,7 +68,8 @@ class TodoApiErrorScenariosTest {
             .body("""
                 {
                     "title": "Test",
-                    "done": false
+                    "done": false,
+                    "version": 0
                 }
                 """)
         .when()
@@ -0,0 +1,46 @@
+package de.training.playground.unit.basic;
+
+import de.training.playground.config.NativeHintsConfig;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit-Tests fuer die Native-Image-Hinweise in {@link NativeHintsConfig}.
+ *
+ * <p>Fehlende Hinweise fallen sonst erst im Native Image zur Laufzeit auf.
+ * {@link RuntimeHintsPredicates} prueft sie ohne GraalVM-Build.
+ */
+@Epic("Unit Tests")
+@Feature("basic")
+@DisplayName("NativeHintsConfig")
+class NativeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeHintsConfig.PlaygroundRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("Thymeleaf-Templates und Migrationen sind als Ressourcen registriert")
+    void registersResources() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("templates/index.html")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("templates/edit.html")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/V1__create_todo.sql")).accepts(hints);
+    }
+
+    @Test
+    @DisplayName("H2-Treiber ist fuer Reflection registriert")
+    void registersH2Driver() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of("org.h2.Driver"))).accepts(hints);
+    }
+}
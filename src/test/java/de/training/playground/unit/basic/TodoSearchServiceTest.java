@@ -0,0 +1,162 @@
+package de.training.playground.unit.basic;
+
+import de.training.playground.entity.Todo;
+import de.training.playground.entity.TodoEvent;
+import de.training.playground.service.TodoSearchService;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit-Tests fuer den invertierten Index im {@link TodoSearchService}.
+ *
+ * <p>Der Index ist reine Java-Logik ohne Abhaengigkeiten und wird daher
+ * ohne Spring-Kontext und ohne Mocks getestet.
+ */
+@Epic("Unit Tests")
+@Feature("basic")
+@DisplayName("TodoSearchService")
+class TodoSearchServiceTest {
+
+    private TodoSearchService index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TodoSearchService();
+        index.index(todo(1L, "Einkaufen gehen", "Milch und Brot"));
+        index.index(todo(2L, "Sport machen", "Vor dem Einkaufen"));
+        index.index(todo(3L, "Einkaufsliste erstellen", null));
+    }
+
+    @Test
+    @DisplayName("Praefix-Suche ignoriert Gross-/Kleinschreibung")
+    void prefixSearchIsCaseInsensitive() {
+        assertThat(index.search("EINKAUF", 10)).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Exakter Titel-Treffer vor Praefix- und Beschreibungs-Treffer")
+    void exactTitleMatchRanksFirst() {
+        assertThat(index.search("einkaufen", 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Mehrere Begriffe muessen alle vorkommen")
+    void multipleTermsAreAnded() {
+        assertThat(index.search("einkaufen milch", 10)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Neu indexiertes Todo ersetzt alte Begriffe")
+    void reindexReplacesOldTerms() {
+        index.index(todo(1L, "Putzen", null));
+
+        assertThat(index.search("einkaufen", 10)).containsExactly(2L);
+        assertThat(index.search("putzen", 10)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Entfernte Todos werden nicht mehr gefunden")
+    void removedTodosAreNotFound() {
+        index.remove(3L);
+
+        assertThat(index.search("einkaufsliste", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Events aktualisieren den Index, 'erledigt' aendert nichts")
+    void eventsUpdateIndex() {
+        Todo created = todo(4L, "Fenster putzen", null);
+        index.onChange(TodoEvent.created(created));
+        index.onChange(TodoEvent.done(todo(1L, "wird ignoriert", null)));
+        index.onChange(TodoEvent.deleted(2L));
+
+        assertThat(index.search("fenster", 10)).containsExactly(4L);
+        assertThat(index.search("einkaufen", 10)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Limit begrenzt die Trefferanzahl")
+    void limitRestrictsResults() {
+        assertThat(index.search("einkauf", 2)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Limit behaelt die besten Treffer, bei Gleichstand die kleinere ID")
+    void limitKeepsBestHits() {
+        index.index(todo(10L, "Rasen", null));
+        index.index(todo(11L, "Garten", "Rasen maehen"));
+        index.index(todo(12L, "Rasen", null));
+
+        assertThat(index.search("rasen", 2)).containsExactly(10L, 12L);
+        assertThat(index.search("rasen", 3)).containsExactly(10L, 12L, 11L);
+    }
+
+    @Test
+    @DisplayName("Kurze Suchbegriffe treffen nur exakt, nicht als Praefix")
+    void shortTermsMatchExactly() {
+        index.index(todo(10L, "Eis essen", null));
+
+        assertThat(index.search("ei", 10)).isEmpty();
+        assertThat(index.search("eis", 10)).containsExactly(10L);
+    }
+
+    @Test
+    @DisplayName("Entfernen und erneutes Indexieren vieler Todos haelt die Postings sortiert")
+    void manyUpdatesKeepPostingsConsistent() {
+        for (long id = 100; id < 200; id++) {
+            index.index(todo(id, "Stapel " + id, null));
+        }
+        for (long id = 100; id < 200; id += 2) {
+            index.remove(id);
+        }
+        index.index(todo(150L, "Stapel neu", null));
+
+        assertThat(index.search("stapel", 1000)).hasSize(51).startsWith(101L, 103L);
+        assertThat(index.search("stapel neu", 10)).containsExactly(150L);
+        assertThat(index.size()).isEqualTo(3 + 51);
+    }
+
+    @Test
+    @DisplayName("Neuaufbau ueberschreibt keine Aenderungen aus Events")
+    void rebuildKeepsChangesFromEvents() {
+        index.beginRebuild();
+        index.index(todo(1L, "Putzen", null));
+        index.remove(2L);
+        index.rebuildEntry(todo(1L, "Einkaufen gehen", null));
+        index.rebuildEntry(todo(2L, "Sport machen", null));
+        index.rebuildEntry(todo(3L, "Einkaufsliste erstellen", null));
+        index.endRebuild();
+
+        assertThat(index.search("putzen", 10)).containsExactly(1L);
+        assertThat(index.search("einkauf", 10)).containsExactly(3L);
+        assertThat(index.search("sport", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Health meldet WARMING bis zum Ende des Neuaufbaus")
+    void healthIsWarmingUntilRebuildEnds() {
+        assertThat(index.isReady()).isFalse();
+        index.beginRebuild();
+        index.rebuildEntry(todo(1L, "Einkaufen gehen", null));
+
+        assertThat(index.health().getStatus().getCode()).isEqualTo(TodoSearchService.WARMING);
+        assertThat(index.health().getDetails()).containsEntry("indexed", 1);
+
+        index.endRebuild();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    private Todo todo(Long id, String title, String description) {
+        Todo todo = new Todo(title, description, null);
+        todo.setId(id);
+        return todo;
+    }
+}
@@ -0,0 +1,163 @@
+package de.training.playground.unit.mock;
+
+import de.training.playground.entity.Todo;
+import de.training.playground.entity.TodoChanges;
+import de.training.playground.entity.TodoTombstone;
+import de.training.playground.repository.TodoRepository;
+import de.training.playground.repository.TodoTombstoneRepository;
+import de.training.playground.service.TodoChangeService;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit-Tests fuer den {@link TodoChangeService} mit Mockito.
+ *
+ * <p>Prueft Seitenbildung und Verdichtung ohne Datenbank; die Uhr steht fest.
+ */
+@Epic("Unit Tests")
+@Feature("mock")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TodoChangeService")
+class TodoChangeServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-01T12:00:00Z");
+
+    @Mock
+    TodoRepository repository;
+
+    @Mock
+    TodoTombstoneRepository tombstones;
+
+    TodoChangeService service;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findMaxChangeSeq()).thenReturn(5L);
+        service = new TodoChangeService(repository, tombstones,
+            Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofDays(30));
+    }
+
+    @Test
+    @DisplayName("changesSince schneidet die Seite nach den kleinsten Aenderungsnummern ab")
+    void changesSinceMergesTodosAndTombstonesIntoOnePage() {
+        when(repository.findByChangeSeqBetweenOrderByChangeSeqAsc(eq(1L), eq(5L), any()))
+            .thenReturn(List.of(todo(10L, 1), todo(11L, 3), todo(12L, 5)));
+        when(tombstones.findByChangeSeqBetweenAndTodoIdNotNullOrderByChangeSeqAsc(eq(1L), eq(5L), any()))
+            .thenReturn(List.of(new TodoTombstone(20L, 2, NOW), new TodoTombstone(21L, 4, NOW)));
+
+        TodoChanges changes = service.changesSince(0, 3);
+
+        assertThat(changes.changed()).extracting(Todo::getId).containsExactly(10L, 11L);
+        assertThat(changes.deleted()).containsExactly(20L);
+        assertThat(changes.token()).isEqualTo(3);
+        assertThat(changes.more()).isTrue();
+    }
+
+    @Test
+    @DisplayName("changesSince liefert ohne volle Seite das Token bis zur stabilen Nummer")
+    void changesSinceReturnsStableTokenWhenComplete() {
+        when(repository.findByChangeSeqBetweenOrderByChangeSeqAsc(eq(4L), eq(5L), any()))
+            .thenReturn(List.of(todo(10L, 4)));
+
+        TodoChanges changes = service.changesSince(3, 10);
+
+        assertThat(changes.changed()).extracting(Todo::getId).containsExactly(10L);
+        assertThat(changes.token()).isEqualTo(5);
+        assertThat(changes.more()).isFalse();
+        assertThat(changes.resyncRequired()).isFalse();
+    }
+
+    @Test
+    @DisplayName("compactTombstones loescht alte Grabsteine und verlangt Neuladen fuer aeltere Tokens")
+    void compactionInvalidatesOlderTokens() {
+        when(tombstones.findMaxChangeSeqDeletedBefore(NOW.minus(Duration.ofDays(30)))).thenReturn(4L);
+        when(tombstones.deleteUpTo(4L)).thenReturn(2);
+
+        assertThat(service.compactTombstones()).isEqualTo(2);
+
+        ArgumentCaptor<TodoTombstone> marker = ArgumentCaptor.forClass(TodoTombstone.class);
+        verify(tombstones).save(marker.capture());
+        assertThat(marker.getValue().getTodoId()).isNull();
+        assertThat(marker.getValue().getChangeSeq()).isEqualTo(4);
+
+        assertThat(service.changesSince(3, 10).resyncRequired()).isTrue();
+        assertThat(service.changesSince(4, 10).resyncRequired()).isFalse();
+        assertThat(service.changesSince(0, 10).resyncRequired()).isFalse();
+    }
+
+    @Test
+    @DisplayName("compactTombstones verlangt Neuladen erst nach dem Commit")
+    void compactionTakesEffectAfterCommit() {
+        when(tombstones.findMaxChangeSeqDeletedBefore(any())).thenReturn(4L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.compactTombstones();
+            assertThat(service.changesSince(3, 10).resyncRequired()).isFalse();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        assertThat(service.changesSince(3, 10).resyncRequired()).isTrue();
+    }
+
+    @Test
+    @DisplayName("compactTombstones laesst die Tokens nach einem Rollback gueltig")
+    void compactionIsDroppedOnRollback() {
+        when(tombstones.findMaxChangeSeqDeletedBefore(any())).thenReturn(4L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.compactTombstones();
+        } finally {
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        assertThat(service.changesSince(3, 10).resyncRequired()).isFalse();
+    }
+
+    @Test
+    @DisplayName("compactTombstones tut nichts, wenn nichts abgelaufen ist")
+    void compactionWithoutExpiredTombstonesIsNoOp() {
+        when(tombstones.findMaxChangeSeqDeletedBefore(any())).thenReturn(0L);
+
+        assertThat(service.compactTombstones()).isZero();
+
+        verify(tombstones, never()).deleteUpTo(anyLong());
+    }
+
+    /** Schliesst die simulierte Transaktion ab wie Spring nach Commit oder Rollback. */
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static Todo todo(Long id, long changeSeq) {
+        Todo todo = new Todo("Todo " + id);
+        todo.setId(id);
+        todo.setChangeSeq(changeSeq);
+        return todo;
+    }
+}
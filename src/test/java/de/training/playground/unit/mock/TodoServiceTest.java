@@ -2,6 +2,7 @@ package de.training.playground.unit.mock;
 
 import de.training.playground.entity.Todo;
 import de.training.playground.repository.TodoRepository;
+import de.training.playground.service.TodoChangeService;
 import de.training.playground.service.TodoService;
 import io.qameta.allure.*;
 import org.junit.jupiter.api.DisplayName;
@@ -10,7 +11,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Clock;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,6 +49,15 @@ class TodoServiceTest {
     @Mock
     TodoRepository repository;
 
+    @Mock
+    TodoChangeService changes;
+
+    @Mock
+    ApplicationEventPublisher events;
+
+    @Mock
+    Clock clock;
+
     @InjectMocks
     TodoService service;
 
@@ -65,7 +77,7 @@ class TodoServiceTest {
     @Test
     @DisplayName("markDone wirft Exception wenn nicht gefunden")
     void markDoneThrowsWhenNotFound() {
-        when(repository.findById(99L)).thenReturn(Optional.empty());
+        when(repository.findLockedById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.markDone(99L))
             .isInstanceOf(IllegalArgumentException.class)
@@ -73,15 +85,14 @@ class TodoServiceTest {
     }
 
     @Test
-    @DisplayName("markDone setzt done und speichert")
-    void markDoneSavesUpdatedTodo() {
+    @DisplayName("markDone aendert das Todo und liefert es erledigt zurueck")
+    void markDoneUpdatesAndReturnsTodo() {
         Todo todo = new Todo("Test");
-        when(repository.findById(1L)).thenReturn(Optional.of(todo));
-        when(repository.save(any())).thenReturn(todo);
+        when(repository.findLockedById(1L)).thenReturn(Optional.of(todo));
 
         Todo result = service.markDone(1L);
 
         assertThat(result.isDone()).isTrue();
-        verify(repository).save(todo);
+        verify(repository, never()).save(any());
     }
 }
@@ -1,7 +1,10 @@
 package de.training.playground.unit.mock;
 
 import de.training.playground.entity.Todo;
+import de.training.playground.entity.TodoPage;
 import de.training.playground.repository.TodoRepository;
+import de.training.playground.service.TodoChangeService;
+import de.training.playground.service.TodoSearchService;
 import de.training.playground.service.TodoService;
 import io.qameta.allure.*;
 import org.junit.jupiter.api.*;
@@ -9,10 +12,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -43,6 +55,18 @@ class TodoServiceUnitTest {
     @Mock
     private TodoRepository repository;
 
+    @Mock
+    private TodoSearchService searchIndex;
+
+    @Mock
+    private TodoChangeService changes;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Mock
+    private Clock clock;
+
     @InjectMocks
     private TodoService service;
 
@@ -78,33 +102,110 @@ class TodoServiceUnitTest {
     }
 
     @Test
-    @DisplayName("markDone markiert Todo als erledigt")
-    void markDone_setsStatusAndSaves() {
-        when(repository.findById(1L)).thenReturn(Optional.of(testTodo));
-        when(repository.save(any())).thenReturn(testTodo);
+    @DisplayName("findOverdue fragt mit dem Datum der Uhr und liefert Cursor fuer die Folgeseite")
+    void findOverdue_usesClockDate() {
+        when(clock.instant()).thenReturn(Instant.parse("2026-06-15T10:00:00Z"));
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        Todo next = new Todo("Naechstes");
+        next.setId(2L);
+        when(repository.findOverdue(eq(LocalDate.of(2026, 6, 15)), eq(0L), any(Limit.class)))
+            .thenReturn(List.of(testTodo, next));
+
+        TodoPage page = service.findOverdue(null, 1);
+
+        assertEquals(List.of(testTodo), page.items());
+        assertEquals(1L, page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("markDone aendert das gesperrt gelesene Todo statt per Bulk-UPDATE")
+    void markDone_changesLockedEntity() {
+        when(changes.next()).thenReturn(7L);
+        when(repository.findLockedById(1L)).thenReturn(Optional.of(testTodo));
+
+        Todo result = service.markDone(1L);
+
+        assertTrue(result.isDone());
+        assertEquals(7L, result.getChangeSeq());
+        verify(events).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("markDone laesst ein erledigtes Todo ohne neue Aenderungsnummer")
+    void markDone_whenAlreadyDone_keepsChangeSeq() {
+        testTodo.markDone();
+        when(repository.findLockedById(1L)).thenReturn(Optional.of(testTodo));
 
         service.markDone(1L);
 
-        assertTrue(testTodo.isDone());
-        verify(repository).save(testTodo);
+        verify(changes, never()).next();
+        verifyNoInteractions(events);
+    }
+
+    @Test
+    @DisplayName("deleteIfExists entfernt das geladene Todo statt per Bulk-DELETE")
+    void deleteIfExists_removesEntity() {
+        when(repository.findById(1L)).thenReturn(Optional.of(testTodo));
+
+        assertTrue(service.deleteIfExists(1L));
+
+        verify(repository).delete(testTodo);
+        verify(changes).recordDeletion(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("update mit veralteter Version wirft Konflikt")
+    void update_withStaleVersion_throwsConflict() {
+        testTodo.setVersion(2L);
+        when(repository.findById(1L)).thenReturn(Optional.of(testTodo));
+        Todo stale = new Todo("Veraltet");
+        stale.setVersion(1L);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> service.update(1L, stale));
+        assertEquals("Test", testTodo.getTitle());
     }
 
     @Test
     @DisplayName("markDone wirft Exception bei unbekannter ID")
     void markDone_withUnknownId_throwsException() {
-        when(repository.findById(99L)).thenReturn(Optional.empty());
+        when(repository.findLockedById(99L)).thenReturn(Optional.empty());
 
         assertThrows(IllegalArgumentException.class, () -> service.markDone(99L));
     }
 
     @Test
-    @DisplayName("search findet Todos nach Titel")
-    void search_findsByTitle() {
-        when(repository.findByTitleContaining("Test")).thenReturn(Arrays.asList(testTodo));
+    @DisplayName("search laedt Treffer aus dem Suchindex in Ranking-Reihenfolge")
+    void search_loadsHitsInRankingOrder() {
+        Todo other = new Todo("Test zwei");
+        other.setId(2L);
+        when(searchIndex.search("Test", TodoService.MAX_SEARCH_RESULTS)).thenReturn(List.of(2L, 1L));
+        when(repository.findAllById(List.of(2L, 1L))).thenReturn(Arrays.asList(testTodo, other));
 
         List<Todo> result = service.search("Test");
 
-        assertEquals(1, result.size());
-        verify(repository).findByTitleContaining("Test");
+        assertEquals(List.of(other, testTodo), result);
+        verify(repository, never()).findByTitleContaining(any());
+    }
+
+    @Test
+    @DisplayName("processAll liest nach einer vollen Seite ab der letzten ID weiter")
+    void processAll_continuesAfterFullPage() {
+        List<Todo> firstPage = LongStream.rangeClosed(1, TodoService.PROCESS_PAGE_SIZE)
+            .mapToObj(id -> {
+                Todo todo = new Todo("Todo " + id);
+                todo.setId(id);
+                return todo;
+            })
+            .toList();
+        long last = TodoService.PROCESS_PAGE_SIZE;
+        Limit page = Limit.of(TodoService.PROCESS_PAGE_SIZE);
+        when(repository.findBatchAfter(0L, page)).thenReturn(firstPage);
+        when(repository.findBatchAfter(last, page)).thenReturn(List.of(testTodo));
+        List<Todo> seen = new ArrayList<>();
+
+        service.processAll(seen::add);
+
+        assertEquals(TodoService.PROCESS_PAGE_SIZE + 1, seen.size());
+        verify(repository, times(2)).findBatchAfter(anyLong(), any());
     }
 }